@@ -32,14 +32,17 @@ public class YamahaMusicCastBindingConstants {
     // List all Thing Type UIDs, related to the YamahaMusicCast Binding
     public static final ThingTypeUID THING_TYPE_SPEAKER = new ThingTypeUID(BINDING_ID, "speaker");
 
+    // List of all Channel group ids, the zone groups are named after the zones
+    public static final String CHANNEL_GROUP_PLAYER = "player";
+
     // List of all Channel ids
-    public static final String CHANNEL_ZONE = "zone";
     public static final String CHANNEL_POWER = "power";
     public static final String CHANNEL_VOLUME = "volume";
     public static final String CHANNEL_MUTE = "mute";
     public static final String CHANNEL_INPUT = "input";
     public static final String CHANNEL_PLAYBACK = "playback";
     public static final String CHANNEL_ALBUM_ART = "albumArt";
+    public static final String CHANNEL_ALBUM_ART_THUMBNAIL = "albumArtThumbnail";
     public static final String CHANNEL_ARTIST = "artist";
     public static final String CHANNEL_ALBUM = "album";
     public static final String CHANNEL_TRACK = "track";
@@ -58,6 +61,12 @@ public class YamahaMusicCastBindingConstants {
 
     // Default UDP listening events port
     public static final int EVENTS_DEFAULT_PORT = 41100;
+    // Thread pool handling the events of all the devices
+    public static final String EVENT_THREADPOOL_NAME = "yamahamusiccast-events";
+    // Thread pool resolving the hosts of the devices, off the event receivers
+    public static final String RESOLVER_THREADPOOL_NAME = "yamahamusiccast-resolver";
+    // Thread pool writing the album art store to disk
+    public static final String ALBUM_ART_THREADPOOL_NAME = "yamahamusiccast-albumart";
 
     // List of properties
     public static final String DESC_DEVICE_TYPE = "MediaRenderer";
@@ -66,6 +75,31 @@ public class YamahaMusicCastBindingConstants {
     public static final String DESC_MODEL_NAME = "modelName";
     public static final String DESC_SERIAL_NUMBER = "serialNumber";
     public static final String DESC_IP_ADDRESS = "ipAddress";
+    public static final String PROPERTY_ZONES = "zones";
+
+    // List of diagnostic properties
+    public static final String PROPERTY_VOLUME_SUBMITTED = "volumeCommandsSubmitted";
+    public static final String PROPERTY_VOLUME_SENT = "volumeCommandsSent";
+    public static final String PROPERTY_VOLUME_DROPPED = "volumeCommandsDropped";
+    public static final String PROPERTY_REQUEST_QUEUE_DEPTH = "requestQueueDepth";
+    public static final String PROPERTY_REQUEST_QUEUE_MAX_DEPTH = "requestQueueMaxDepth";
+    public static final String PROPERTY_REQUEST_WAIT_PREFIX = "requestWait";
+    public static final String PROPERTY_LATENCY = "latency";
+    public static final String PROPERTY_REQUEST_TIMEOUT = "requestTimeout";
+    public static final String PROPERTY_REQUEST_TIMEOUTS = "requestTimeouts";
+    public static final String PROPERTY_CIRCUIT_TRIPS = "circuitTrips";
+    public static final String PROPERTY_CIRCUIT_REJECTED = "circuitRejectedRequests";
+    public static final String PROPERTY_COMMAND_RETRIES = "commandRetries";
+    public static final String PROPERTY_COMMANDS_HELD = "commandsHeldDuringPowerOn";
+    public static final String PROPERTY_EVENT_QUEUE_DEPTH = "eventQueueDepth";
+    public static final String PROPERTY_EVENTS_DROPPED = "eventsDropped";
+    public static final String PROPERTY_EVENT_LATENCY = "eventLatency";
+    public static final String PROPERTY_UPDATE_FETCHES = "updateFetches";
+    public static final String PROPERTY_SUBSCRIPTION = "eventSubscription";
+    public static final String PROPERTY_ALBUM_ART_CACHE = "albumArtCache";
+    public static final String PROPERTY_ALBUM_ART_STORE = "albumArtStore";
+    public static final String PROPERTY_CHANNEL_UPDATES = "channelUpdates";
+    public static final String PROPERTY_REFRESH_PLAN = "refreshPlan";
 
     // API
     public static final String ROOT_PATH = "/YamahaExtendedControl/v2";
@@ -117,7 +151,31 @@ public class YamahaMusicCastBindingConstants {
         main,
         zone2,
         zone3,
-        zone4
+        zone4;
+
+        /**
+         * Looks a zone up by the id used in the device answers, events and channel groups, without allocating.
+         *
+         * @param id the id of the zone, e.g. "zone2"
+         * @return the zone, or null if the id is not a zone
+         */
+        public static Zone fromId(String id) {
+            if (id == null) {
+                return null;
+            }
+            switch (id) {
+                case "main":
+                    return main;
+                case "zone2":
+                    return zone2;
+                case "zone3":
+                    return zone3;
+                case "zone4":
+                    return zone4;
+                default:
+                    return null;
+            }
+        }
     }
 
     /**
@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * The {@link AlbumArtCache} keeps the album art downloaded by all the speakers of the binding, keyed by device, album
+ * art URL, album art id and size, so the art is only downloaded again when the id changes. Speakers playing the same
+ * station or playlist get the same image, so identical images are stored once and shared by their keys. The least
+ * recently used keys are evicted once the stored images exceed the byte budget.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+@NonNullByDefault
+public class AlbumArtCache {
+
+    private final long maxBytes;
+
+    private final LinkedHashMap<String, Content> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Content, Content> contents = new HashMap<>();
+
+    private long usedBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param maxBytes the largest number of image bytes kept
+     */
+    public AlbumArtCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Builds the key of an image.
+     *
+     * @param device the host of the device
+     * @param url the album art URL
+     * @param id the album art id reported by the device, changed whenever the art changes
+     * @param size the size the image was scaled to, 0 for the received image
+     */
+    public static String key(String device, String url, @Nullable Integer id, int size) {
+        return device + '\n' + url + '\n' + id + '\n' + size;
+    }
+
+    /**
+     * @param key the key of the image, see {@link #key(String, String, Integer, int)}
+     * @return the image, or null if it is not cached. The array must not be modified.
+     */
+    public synchronized byte @Nullable [] get(String key) {
+        Content content = entries.get(key);
+        if (content == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return content.bytes;
+    }
+
+    /**
+     * Adds an image. An image bigger than a quarter of the budget is not kept, so a single image does not evict the
+     * art of all the other speakers.
+     *
+     * @param key the key of the image, see {@link #key(String, String, Integer, int)}
+     * @param bytes the image, the array must not be modified afterwards
+     */
+    public synchronized void put(String key, byte[] bytes) {
+        if (bytes.length > maxBytes / 4) {
+            return;
+        }
+        Content content = new Content(bytes);
+        Content shared = contents.get(content);
+        if (shared == null) {
+            contents.put(content, content);
+            usedBytes += bytes.length;
+            shared = content;
+        }
+        shared.references++;
+        Content previous = entries.put(key, shared);
+        if (previous != null) {
+            release(previous);
+        }
+        Iterator<Content> eldest = entries.values().iterator();
+        while (usedBytes > maxBytes && eldest.hasNext()) {
+            Content evicted = eldest.next();
+            eldest.remove();
+            release(evicted);
+            evictions++;
+        }
+    }
+
+    private void release(Content content) {
+        if (--content.references == 0) {
+            contents.remove(content);
+            usedBytes -= content.bytes.length;
+        }
+    }
+
+    /**
+     * @return the number of lookups which found the image
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of lookups which did not find the image
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the number of keys evicted to stay within the budget
+     */
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return the number of image bytes kept
+     */
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * One stored image, compared by its bytes.
+     */
+    private static class Content {
+        final byte[] bytes;
+        final int hash;
+        int references;
+
+        Content(byte[] bytes) {
+            this.bytes = bytes;
+            this.hash = Arrays.hashCode(bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            return obj instanceof Content && hash == ((Content) obj).hash
+                    && Arrays.equals(bytes, ((Content) obj).bytes);
+        }
+    }
+}
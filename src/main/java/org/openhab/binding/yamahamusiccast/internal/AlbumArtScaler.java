@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link AlbumArtScaler} shrinks the album art served by the speakers before it is published. The image is decoded
+ * once and every requested size is drawn from it and encoded as JPEG. An image already within a size, or which cannot
+ * be decoded, is kept as it was received.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+@NonNullByDefault
+public class AlbumArtScaler {
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    private final Logger logger = LoggerFactory.getLogger(AlbumArtScaler.class);
+
+    /**
+     * Scales an image to each of the given sizes.
+     *
+     * @param image the encoded image
+     * @param sizes the largest width and height of each variant in pixels, 0 keeps the image as it is
+     * @return the variants, in the order of the sizes
+     */
+    public byte[][] scale(byte[] image, int... sizes) {
+        byte[][] variants = new byte[sizes.length][];
+        BufferedImage decoded = null;
+        for (int i = 0; i < sizes.length; i++) {
+            variants[i] = image;
+            if (sizes[i] <= 0) {
+                continue;
+            }
+            try {
+                if (decoded == null) {
+                    decoded = ImageIO.read(new ByteArrayInputStream(image));
+                    if (decoded == null) {
+                        logger.debug("Unknown album art format, keeping it as it is");
+                        break;
+                    }
+                }
+                if (decoded.getWidth() > sizes[i] || decoded.getHeight() > sizes[i]) {
+                    variants[i] = encode(resize(decoded, sizes[i]));
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.debug("Failed to scale the album art: {}", e.toString());
+                break;
+            }
+        }
+        return variants;
+    }
+
+    /**
+     * Halves the image until it is less than twice the size, then draws the last step. Each step is bilinear, so a
+     * large reduction does not alias, at a fraction of the cost of a bicubic scaling.
+     */
+    private static BufferedImage resize(BufferedImage source, int size) {
+        double ratio = Math.min((double) size / source.getWidth(), (double) size / source.getHeight());
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        boolean first = true;
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                        RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                if (first) {
+                    // JPEG has no transparency
+                    graphics.setColor(Color.WHITE);
+                    graphics.fillRect(0, 0, width, height);
+                    first = false;
+                }
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private static byte[] encode(BufferedImage image) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        if (!writers.hasNext()) {
+            throw new IOException("No JPEG encoder");
+        }
+        ImageWriter writer = writers.next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
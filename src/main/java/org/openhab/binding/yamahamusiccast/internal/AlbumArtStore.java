@@ -0,0 +1,398 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link AlbumArtStore} keeps the album art on disk, so the art seen before a restart is not downloaded again. The
+ * images are stored once per content, addressed by their SHA-256 digest, in a single segment file memory-mapped at its
+ * full size. A small index file maps the keys of the {@link AlbumArtCache} to the images and remembers when each image
+ * was last used. When the segment is full, the least recently used images are dropped and the others are moved to the
+ * start of the segment.
+ *
+ * The segment and the index are not written on every change but by {@link #flush()}, called periodically and on
+ * {@link #close()}, outside the lock taken by the lookups. The index is only written after the images it points to,
+ * and the images are checked against their digest when the store is opened, so a store left inconsistent by a crash
+ * only loses the damaged images and the changes since the last flush.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+@NonNullByDefault
+public class AlbumArtStore {
+
+    private static final String SEGMENT_FILE = "albumart.dat";
+    private static final String INDEX_FILE = "albumart.idx";
+    private static final int INDEX_MAGIC = 0x59414131;
+    private static final int DIGEST_LENGTH = 32;
+
+    private final Logger logger = LoggerFactory.getLogger(AlbumArtStore.class);
+
+    private final Path indexFile;
+    private final int capacity;
+    private final FileChannel channel;
+    private final MappedByteBuffer segment;
+
+    private final Map<Digest, Blob> blobs = new HashMap<>();
+    private final Map<String, Blob> keys = new HashMap<>();
+    // only one flush writes the files at a time
+    private final Object flushLock = new Object();
+    private int end;
+    private boolean dirty;
+    private boolean closed;
+    private long hits;
+    private long misses;
+    private long compactions;
+
+    /**
+     * Opens the store, or creates it.
+     *
+     * @param directory the directory of the store, created if needed
+     * @param capacity the size of the segment file in bytes
+     * @throws IOException if the segment file cannot be mapped
+     */
+    public AlbumArtStore(Path directory, int capacity) throws IOException {
+        Files.createDirectories(directory);
+        this.indexFile = directory.resolve(INDEX_FILE);
+        this.capacity = capacity;
+        this.channel = FileChannel.open(directory.resolve(SEGMENT_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        try {
+            load();
+        } catch (IOException e) {
+            logger.debug("Discarding the album art index: {}", e.getMessage());
+            blobs.clear();
+            keys.clear();
+        }
+        for (Blob blob : blobs.values()) {
+            end = Math.max(end, blob.offset + blob.length);
+        }
+    }
+
+    /**
+     * Looks an image up.
+     *
+     * @param key the key of the image, see {@link AlbumArtCache#key(String, String, Integer, int)}
+     * @return the image, or null if it is not stored or the store is closed. It is copied straight from the mapped
+     *         segment, without any read call or intermediate buffer, into the array the caller publishes.
+     */
+    public synchronized byte @Nullable [] get(String key) {
+        if (closed) {
+            return null;
+        }
+        Blob blob = keys.get(key);
+        if (blob == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        blob.lastUsed = System.currentTimeMillis();
+        dirty = true;
+        byte[] image = new byte[blob.length];
+        view(blob).get(image);
+        return image;
+    }
+
+    /**
+     * Stores an image. An image larger than a quarter of the segment is not stored, nor is any image once the store is
+     * closed.
+     *
+     * @param key the key of the image, see {@link AlbumArtCache#key(String, String, Integer, int)}
+     * @param image the image
+     */
+    public synchronized void put(String key, byte[] image) {
+        if (closed || image.length == 0 || image.length > capacity / 4) {
+            return;
+        }
+        Digest digest = Digest.of(image);
+        Blob blob = blobs.get(digest);
+        if (blob == null) {
+            if (end + image.length > capacity) {
+                compact(capacity - capacity / 4);
+            }
+            blob = new Blob(digest, end, image.length);
+            ByteBuffer target = segment.duplicate();
+            target.position(end);
+            target.put(image);
+            end += image.length;
+            blobs.put(digest, blob);
+        }
+        blob.lastUsed = System.currentTimeMillis();
+        keys.put(key, blob);
+        dirty = true;
+    }
+
+    /**
+     * Writes the images and then the index, if they changed since the last flush. The index is copied under the lock
+     * and written to disk without it, so the lookups are not held up by the disk.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            byte[] index;
+            synchronized (this) {
+                if (!dirty || closed) {
+                    return;
+                }
+                dirty = false;
+                try {
+                    index = encodeIndex();
+                } catch (IOException e) {
+                    // only thrown by the underlying stream, which is in memory
+                    throw new IllegalStateException(e);
+                }
+            }
+            try {
+                segment.force();
+                save(index);
+            } catch (IOException | RuntimeException e) {
+                logger.debug("Failed to save the album art index: {}", e.getMessage());
+                synchronized (this) {
+                    dirty = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the pending changes and releases the segment file.
+     */
+    public void close() {
+        flush();
+        synchronized (this) {
+            closed = true;
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.debug("Failed to close the album art store: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Keeps the most recently used images up to the given size and moves them to the start of the segment.
+     */
+    private void compact(int keep) {
+        List<Blob> recent = new ArrayList<>(blobs.values());
+        recent.sort(Comparator.comparingLong((Blob blob) -> blob.lastUsed).reversed());
+        List<Blob> kept = new ArrayList<>();
+        int size = 0;
+        for (Blob blob : recent) {
+            if (size + blob.length > keep) {
+                blobs.remove(blob.digest);
+            } else {
+                kept.add(blob);
+                size += blob.length;
+            }
+        }
+        keys.values().removeIf(blob -> !blobs.containsKey(blob.digest));
+        // moved down in the order of the segment, so no image is overwritten before it is moved
+        kept.sort(Comparator.comparingInt(blob -> blob.offset));
+        int position = 0;
+        for (Blob blob : kept) {
+            if (blob.offset != position) {
+                byte[] image = new byte[blob.length];
+                view(blob).get(image);
+                ByteBuffer target = segment.duplicate();
+                target.position(position);
+                target.put(image);
+                blob.offset = position;
+            }
+            position += blob.length;
+        }
+        end = position;
+        compactions++;
+        logger.debug("Album art store compacted, {} images and {} bytes kept", kept.size(), end);
+    }
+
+    private ByteBuffer view(Blob blob) {
+        ByteBuffer view = segment.asReadOnlyBuffer();
+        view.position(blob.offset);
+        view.limit(blob.offset + blob.length);
+        return view.slice();
+    }
+
+    private void load() throws IOException {
+        try (InputStream file = Files.newInputStream(indexFile);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(file))) {
+            if (in.readInt() != INDEX_MAGIC) {
+                throw new IOException("Unknown index format");
+            }
+            int blobCount = in.readInt();
+            List<@Nullable Blob> indexed = new ArrayList<>(blobCount);
+            for (int i = 0; i < blobCount; i++) {
+                byte[] digest = new byte[DIGEST_LENGTH];
+                in.readFully(digest);
+                Blob blob = new Blob(new Digest(digest), in.readInt(), in.readInt());
+                blob.lastUsed = in.readLong();
+                if (blob.offset < 0 || blob.length <= 0 || blob.offset + blob.length > capacity) {
+                    indexed.add(null);
+                    continue;
+                }
+                byte[] image = new byte[blob.length];
+                view(blob).get(image);
+                if (!blob.digest.equals(Digest.of(image))) {
+                    // not written completely before a crash, or overwritten by an interrupted compaction
+                    indexed.add(null);
+                    continue;
+                }
+                indexed.add(blob);
+                blobs.put(blob.digest, blob);
+            }
+            int keyCount = in.readInt();
+            for (int i = 0; i < keyCount; i++) {
+                String key = in.readUTF();
+                int index = in.readInt();
+                Blob blob = index >= 0 && index < blobCount ? indexed.get(index) : null;
+                if (blob != null) {
+                    keys.put(key, blob);
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // a new store
+        }
+        logger.debug("Album art store opened with {} images", blobs.size());
+    }
+
+    private byte[] encodeIndex() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(INDEX_MAGIC);
+            List<Blob> indexed = new ArrayList<>(blobs.values());
+            Map<Blob, Integer> positions = new HashMap<>();
+            out.writeInt(indexed.size());
+            for (Blob blob : indexed) {
+                positions.put(blob, positions.size());
+                out.write(blob.digest.bytes);
+                out.writeInt(blob.offset);
+                out.writeInt(blob.length);
+                out.writeLong(blob.lastUsed);
+            }
+            out.writeInt(keys.size());
+            for (Map.Entry<String, Blob> entry : keys.entrySet()) {
+                out.writeUTF(entry.getKey());
+                Integer position = positions.get(entry.getValue());
+                out.writeInt(position != null ? position : -1);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private void save(byte[] index) throws IOException {
+        Path temporary = indexFile.resolveSibling(INDEX_FILE + ".tmp");
+        Files.write(temporary, index);
+        Files.move(temporary, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return the number of lookups which found the image
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of lookups which did not find the image
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the number of bytes of the segment in use
+     */
+    public synchronized long getUsedBytes() {
+        return end;
+    }
+
+    /**
+     * @return the number of times the least recently used images were dropped to make room
+     */
+    public synchronized long getCompactions() {
+        return compactions;
+    }
+
+    /**
+     * The SHA-256 digest of an image.
+     */
+    private static class Digest {
+        final byte[] bytes;
+        final int hash;
+
+        Digest(byte[] bytes) {
+            this.bytes = bytes;
+            this.hash = Arrays.hashCode(bytes);
+        }
+
+        static Digest of(byte[] image) {
+            try {
+                return new Digest(MessageDigest.getInstance("SHA-256").digest(image));
+            } catch (NoSuchAlgorithmException e) {
+                // SHA-256 is always supported
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            return obj instanceof Digest && Arrays.equals(bytes, ((Digest) obj).bytes);
+        }
+    }
+
+    /**
+     * One image in the segment.
+     */
+    private static class Blob {
+        final Digest digest;
+        int offset;
+        final int length;
+        long lastUsed;
+
+        Blob(Digest digest, int offset, int length) {
+            this.digest = digest;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.core.thing.ChannelUID;
+import org.openhab.core.types.State;
+
+/**
+ * The {@link ChannelStateCache} remembers the last state published on each channel of a thing, so the refreshes and
+ * events which repeat the same value do not put another state update on the event bus. A channel which is forgotten,
+ * e.g. because a new item was linked to it, or all of them on a resync, is published again on its next update.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+@NonNullByDefault
+public class ChannelStateCache {
+
+    private final Map<ChannelUID, State> published = new ConcurrentHashMap<>();
+
+    private final AtomicLong emitted = new AtomicLong();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    /**
+     * Records a state about to be published.
+     *
+     * @param channelUID the channel
+     * @param state the new state
+     * @return true if the state differs from the last one published on the channel and must be published
+     */
+    public boolean update(ChannelUID channelUID, State state) {
+        State previous = published.put(channelUID, state);
+        if (state.equals(previous)) {
+            suppressed.incrementAndGet();
+            return false;
+        }
+        emitted.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Forgets the state of one channel, its next state is published whatever its value.
+     */
+    public void forget(ChannelUID channelUID) {
+        published.remove(channelUID);
+    }
+
+    /**
+     * Forgets the state of all the channels, their next states are published whatever their values.
+     */
+    public void clear() {
+        published.clear();
+    }
+
+    /**
+     * @return the number of states published
+     */
+    public long getEmitted() {
+        return emitted.get();
+    }
+
+    /**
+     * @return the number of states not published because they were unchanged
+     */
+    public long getSuppressed() {
+        return suppressed.get();
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal;
+
+import static org.openhab.binding.yamahamusiccast.YamahaMusicCastBindingConstants.*;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.yamahamusiccast.YamahaMusicCastBindingConstants.Zone;
+import org.openhab.binding.yamahamusiccast.internal.api.model.Status;
+import org.openhab.core.thing.ChannelUID;
+import org.openhab.core.thing.ThingUID;
+
+/**
+ * The {@link RefreshPlanner} decides which requests a refresh needs, from the linked channels and the state of the
+ * zones:
+ * <ul>
+ * <li>the status of a zone is only fetched when one of its channels is linked, or when a player channel is, since the
+ * power and input of the zones tell whether the player is in use;</li>
+ * <li>the play info is only fetched when a player channel is linked and a zone is on with an input played by the
+ * Net/USB player, or its status is not known yet;</li>
+ * <li>the album art is only downloaded when one of the album art channels is linked.</li>
+ * </ul>
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+@NonNullByDefault
+public class RefreshPlanner {
+
+    private static final String[] ZONE_CHANNELS = { CHANNEL_POWER, CHANNEL_VOLUME, CHANNEL_MUTE, CHANNEL_INPUT };
+    private static final String[] PLAYER_CHANNELS = { CHANNEL_PLAYBACK, CHANNEL_ALBUM_ART,
+            CHANNEL_ALBUM_ART_THUMBNAIL, CHANNEL_ARTIST, CHANNEL_ALBUM, CHANNEL_TRACK, CHANNEL_ALBUMART_URL };
+
+    private final ThingUID thingUID;
+    private final Predicate<ChannelUID> linked;
+
+    /**
+     * @param thingUID the thing
+     * @param linked tells whether an item is linked to a channel
+     */
+    public RefreshPlanner(ThingUID thingUID, Predicate<ChannelUID> linked) {
+        this.thingUID = thingUID;
+        this.linked = linked;
+    }
+
+    /**
+     * @param zones the zones of the device
+     * @return the zones whose status must be fetched
+     */
+    public Set<Zone> getZonesToPoll(Set<Zone> zones) {
+        if (isPlayerLinked()) {
+            return zones;
+        }
+        Set<Zone> polled = EnumSet.noneOf(Zone.class);
+        for (Zone zone : zones) {
+            if (isAnyLinked(zone.name(), ZONE_CHANNELS)) {
+                polled.add(zone);
+            }
+        }
+        return polled;
+    }
+
+    /**
+     * @param zones the zones of the device
+     * @param states the last known status of the zones
+     * @param netUSBInputs the inputs played by the Net/USB player, or null if they are not known
+     * @return whether the play info must be fetched
+     */
+    public boolean needsPlayInfo(Set<Zone> zones, Map<Zone, Status> states, @Nullable Set<String> netUSBInputs) {
+        if (!isPlayerLinked()) {
+            return false;
+        }
+        for (Zone zone : zones) {
+            Status status = states.get(zone);
+            if (status == null) {
+                return true;
+            }
+            if (ZONE_POWER_ON.equals(status.getPower())
+                    && (netUSBInputs == null || netUSBInputs.contains(status.getInput()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return whether the album art must be downloaded
+     */
+    public boolean needsAlbumArt() {
+        return isAnyLinked(CHANNEL_GROUP_PLAYER, CHANNEL_ALBUM_ART, CHANNEL_ALBUM_ART_THUMBNAIL);
+    }
+
+    /**
+     * @return whether a channel of the player is linked, so the play info is worth fetching after an event
+     */
+    public boolean isPlayerLinked() {
+        return isAnyLinked(CHANNEL_GROUP_PLAYER, PLAYER_CHANNELS);
+    }
+
+    private boolean isAnyLinked(String group, String... channels) {
+        for (String channel : channels) {
+            if (linked.test(new ChannelUID(thingUID, group, channel))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,225 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link SubscriptionRenewer} keeps the event subscription of one device alive. A device stops sending events
+ * about 10 minutes after the last subscription, so it is renewed on its own schedule, well within that window and
+ * with some jitter so the devices are not all renewed at once. A failed renewal is retried sooner.
+ *
+ * The subscription is considered lapsed when a renewal failed, or when no event arrived for a while although the
+ * device is expected to send some, e.g. the play time while it is playing. It is then renewed right away, and the
+ * listener is told once it is active again, since the events sent in between are lost.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+@NonNullByDefault
+public class SubscriptionRenewer {
+
+    private static final long RETRY_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private static final long SILENCE_CHECK_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+    private final Logger logger = LoggerFactory.getLogger(SubscriptionRenewer.class);
+
+    private final ScheduledExecutorService scheduler;
+    private final Supplier<CompletableFuture<?>> subscribe;
+    private final Runnable resubscribed;
+    private final long intervalMillis;
+    private final long silenceTimeoutMillis;
+
+    private @Nullable ScheduledFuture<?> renewJob;
+    private @Nullable ScheduledFuture<?> silenceJob;
+    private boolean started;
+    private boolean renewing;
+    private boolean lapsed;
+    private boolean expectingEvents;
+    private long lastEventAt;
+    private long renewals;
+    private long failures;
+    private long lapses;
+
+    /**
+     * @param scheduler the scheduler of the renewals
+     * @param subscribe sends the subscription request
+     * @param resubscribed called once a lapsed subscription is active again
+     * @param intervalMillis the average time between two renewals, in milliseconds
+     * @param silenceTimeoutMillis the longest time without event while events are expected, in milliseconds
+     */
+    public SubscriptionRenewer(ScheduledExecutorService scheduler, Supplier<CompletableFuture<?>> subscribe,
+            Runnable resubscribed, long intervalMillis, long silenceTimeoutMillis) {
+        this.scheduler = scheduler;
+        this.subscribe = subscribe;
+        this.resubscribed = resubscribed;
+        this.intervalMillis = intervalMillis;
+        this.silenceTimeoutMillis = silenceTimeoutMillis;
+    }
+
+    /**
+     * Subscribes now, then keeps renewing the subscription until {@link #stop()}.
+     */
+    public synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        lastEventAt = System.currentTimeMillis();
+        schedule(0);
+        silenceJob = scheduler.scheduleWithFixedDelay(this::checkSilence, SILENCE_CHECK_MILLIS, SILENCE_CHECK_MILLIS,
+                TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        started = false;
+        ScheduledFuture<?> job = renewJob;
+        if (job != null) {
+            job.cancel(false);
+            renewJob = null;
+        }
+        job = silenceJob;
+        if (job != null) {
+            job.cancel(false);
+            silenceJob = null;
+        }
+    }
+
+    /**
+     * Records an event received from the device.
+     */
+    public synchronized void eventReceived() {
+        lastEventAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Tells whether the device is expected to send events continuously, e.g. while it is playing.
+     */
+    public synchronized void setExpectingEvents(boolean expectingEvents) {
+        if (expectingEvents && !this.expectingEvents) {
+            // the silence is counted from now on
+            lastEventAt = System.currentTimeMillis();
+        }
+        this.expectingEvents = expectingEvents;
+    }
+
+    private void checkSilence() {
+        synchronized (this) {
+            if (!started || !expectingEvents || renewing || lapsed
+                    || System.currentTimeMillis() - lastEventAt < silenceTimeoutMillis) {
+                return;
+            }
+            logger.debug("No event for {} ms, the subscription has lapsed", silenceTimeoutMillis);
+            lapsed = true;
+            lapses++;
+            schedule(0);
+        }
+    }
+
+    /**
+     * Must be called holding the lock.
+     */
+    private void schedule(long delay) {
+        ScheduledFuture<?> job = renewJob;
+        if (job != null) {
+            job.cancel(false);
+        }
+        renewJob = scheduler.schedule(this::renew, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void renew() {
+        synchronized (this) {
+            if (!started || renewing) {
+                return;
+            }
+            renewing = true;
+            renewals++;
+        }
+        CompletableFuture<?> result;
+        try {
+            result = subscribe.get();
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((value, e) -> {
+            boolean wasLapsed;
+            synchronized (this) {
+                renewing = false;
+                if (!started) {
+                    return;
+                }
+                if (e != null) {
+                    logger.debug("Failed to renew the event subscription: {}", e.toString());
+                    failures++;
+                    if (!lapsed) {
+                        lapsed = true;
+                        lapses++;
+                    }
+                    schedule(RETRY_DELAY_MILLIS);
+                    return;
+                }
+                wasLapsed = lapsed;
+                lapsed = false;
+                lastEventAt = System.currentTimeMillis();
+                schedule(nextDelay());
+            }
+            if (wasLapsed) {
+                logger.debug("Event subscription active again");
+                resubscribed.run();
+            }
+        });
+    }
+
+    private long nextDelay() {
+        // up to 10% earlier or later
+        long jitter = intervalMillis / 10;
+        return intervalMillis - jitter + ThreadLocalRandom.current().nextLong(2 * jitter + 1);
+    }
+
+    /**
+     * @return the number of subscription requests sent
+     */
+    public synchronized long getRenewals() {
+        return renewals;
+    }
+
+    /**
+     * @return the number of subscription requests which failed
+     */
+    public synchronized long getFailures() {
+        return failures;
+    }
+
+    /**
+     * @return the number of times the subscription lapsed
+     */
+    public synchronized long getLapses() {
+        return lapses;
+    }
+
+    /**
+     * @return the time since the last event, in milliseconds
+     */
+    public synchronized long getSilenceMillis() {
+        return System.currentTimeMillis() - lastEventAt;
+    }
+}
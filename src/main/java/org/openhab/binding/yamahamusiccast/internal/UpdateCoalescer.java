@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link UpdateCoalescer} turns a burst of "*_updated" event flags into a single fetch. The first flag schedules
+ * the fetch after a short settle window, the flags raised during the window are absorbed by it. A flag raised while the
+ * fetch is in flight marks the data dirty, so one more fetch follows once it is done, whatever the number of flags.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+@NonNullByDefault
+public class UpdateCoalescer {
+
+    private final Logger logger = LoggerFactory.getLogger(UpdateCoalescer.class);
+
+    private final ScheduledExecutorService scheduler;
+    private final Supplier<CompletableFuture<?>> fetch;
+    private final long settleMillis;
+
+    private boolean scheduled;
+    private boolean fetching;
+    private boolean dirty;
+    private boolean stopped;
+    private @Nullable ScheduledFuture<?> fetchJob;
+    private long raised;
+    private long fetches;
+    private long saved;
+
+    /**
+     * @param scheduler the scheduler used to delay the fetch
+     * @param fetch fetches the updated data and publishes it
+     * @param settleMillis the time to wait for more flags before fetching, in milliseconds
+     */
+    public UpdateCoalescer(ScheduledExecutorService scheduler, Supplier<CompletableFuture<?>> fetch,
+            long settleMillis) {
+        this.scheduler = scheduler;
+        this.fetch = fetch;
+        this.settleMillis = settleMillis;
+    }
+
+    /**
+     * Records a flag raised by the device.
+     */
+    public void invalidate() {
+        synchronized (this) {
+            if (stopped) {
+                return;
+            }
+            raised++;
+            if (scheduled || (fetching && dirty)) {
+                saved++;
+                return;
+            }
+            if (fetching) {
+                dirty = true;
+                return;
+            }
+            scheduled = true;
+            schedule();
+        }
+    }
+
+    /**
+     * Stops fetching, the fetch scheduled is cancelled and the flags raised from now on are ignored.
+     */
+    public synchronized void stop() {
+        stopped = true;
+        ScheduledFuture<?> job = fetchJob;
+        if (job != null) {
+            job.cancel(false);
+            fetchJob = null;
+        }
+    }
+
+    // called while holding the lock
+    private void schedule() {
+        fetchJob = scheduler.schedule(this::run, settleMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void run() {
+        synchronized (this) {
+            fetchJob = null;
+            if (stopped) {
+                return;
+            }
+            scheduled = false;
+            fetching = true;
+            fetches++;
+        }
+        CompletableFuture<?> result;
+        try {
+            result = fetch.get();
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        result.whenComplete((value, e) -> {
+            if (e != null) {
+                logger.debug("Error fetching the update: {}", e.toString());
+            }
+            synchronized (this) {
+                fetching = false;
+                if (!dirty || stopped) {
+                    return;
+                }
+                dirty = false;
+                scheduled = true;
+                schedule();
+            }
+        });
+    }
+
+    /**
+     * @return the number of flags raised
+     */
+    public synchronized long getRaised() {
+        return raised;
+    }
+
+    /**
+     * @return the number of fetches sent
+     */
+    public synchronized long getFetches() {
+        return fetches;
+    }
+
+    /**
+     * @return the number of flags absorbed by a fetch already scheduled
+     */
+    public synchronized long getSaved() {
+        return saved;
+    }
+}
@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.library.types.PercentType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link VolumeCoalescer} sends the absolute volume commands of one zone with a last-write-wins policy: at most
+ * one request is in flight, and while it is, only the newest target is kept. Once the request is done the pending
+ * target is sent, but never sooner than the minimum interval after the previous one. The intermediate values of a
+ * slider drag are dropped instead of being replayed one after the other.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+@NonNullByDefault
+public class VolumeCoalescer {
+
+    private final Logger logger = LoggerFactory.getLogger(VolumeCoalescer.class);
+
+    private final ScheduledExecutorService scheduler;
+    private final Function<PercentType, CompletableFuture<?>> sender;
+    private final long minIntervalMillis;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private @Nullable PercentType pending;
+    private boolean busy;
+    private boolean stopped;
+    private long lastSent;
+    private @Nullable ScheduledFuture<?> delayJob;
+
+    /**
+     * @param scheduler the scheduler used to delay the next request
+     * @param sender sends one volume target to the device
+     * @param minIntervalMillis the minimum time between two requests, in milliseconds
+     */
+    public VolumeCoalescer(ScheduledExecutorService scheduler, Function<PercentType, CompletableFuture<?>> sender,
+            long minIntervalMillis) {
+        this.scheduler = scheduler;
+        this.sender = sender;
+        this.minIntervalMillis = minIntervalMillis;
+    }
+
+    /**
+     * Submits a new volume target. It replaces the target still waiting to be sent, if any.
+     *
+     * @param volume the volume target
+     */
+    public void submit(PercentType volume) {
+        submitted.incrementAndGet();
+        synchronized (this) {
+            if (stopped) {
+                return;
+            }
+            if (pending != null) {
+                dropped.incrementAndGet();
+            }
+            pending = volume;
+            if (busy) {
+                return;
+            }
+            busy = true;
+        }
+        sendPending();
+    }
+
+    /**
+     * Stops sending, the target still waiting is discarded.
+     */
+    public synchronized void stop() {
+        stopped = true;
+        pending = null;
+        ScheduledFuture<?> job = delayJob;
+        if (job != null) {
+            job.cancel(false);
+            delayJob = null;
+        }
+    }
+
+    private void sendPending() {
+        PercentType volume;
+        synchronized (this) {
+            delayJob = null;
+            volume = pending;
+            if (volume == null || stopped) {
+                busy = false;
+                return;
+            }
+            long delay = lastSent + minIntervalMillis - System.currentTimeMillis();
+            if (delay > 0) {
+                delayJob = scheduler.schedule(this::sendPending, delay, TimeUnit.MILLISECONDS);
+                return;
+            }
+            pending = null;
+            lastSent = System.currentTimeMillis();
+        }
+        sent.incrementAndGet();
+        CompletableFuture<?> request;
+        try {
+            request = sender.apply(volume);
+        } catch (RuntimeException e) {
+            request = CompletableFuture.failedFuture(e);
+        }
+        request.whenComplete((result, e) -> {
+            if (e != null) {
+                logger.warn("Error setting volume: {}", e.toString());
+            }
+            sendPending();
+        });
+    }
+
+    /**
+     * @return the number of volume targets submitted
+     */
+    public long getSubmitted() {
+        return submitted.get();
+    }
+
+    /**
+     * @return the number of volume targets sent to the device
+     */
+    public long getSent() {
+        return sent.get();
+    }
+
+    /**
+     * @return the number of volume targets superseded by a newer one before they were sent
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+}
@@ -12,18 +12,29 @@
  */
 package org.openhab.binding.yamahamusiccast.internal;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.Collections;
 import java.util.Dictionary;
 import java.util.Hashtable;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
+import org.eclipse.jetty.client.HttpClient;
 import org.openhab.binding.yamahamusiccast.YamahaMusicCastBindingConstants;
 import org.openhab.binding.yamahamusiccast.handler.YamahaMusicCastHandler;
+import org.openhab.binding.yamahamusiccast.internal.api.model.ModelTypeAdapterFactory;
+import org.openhab.binding.yamahamusiccast.internal.api.model.events.EventTypeAdapterFactory;
 import org.openhab.binding.yamahamusiccast.internal.event.YamahaMusicCastEventMediator;
+import org.openhab.core.OpenHAB;
 import org.openhab.core.audio.AudioHTTPServer;
 import org.openhab.core.audio.AudioSink;
+import org.openhab.core.common.ThreadPoolManager;
+import org.openhab.core.io.net.http.HttpClientFactory;
 import org.openhab.core.io.transport.upnp.UpnpIOService;
 import org.openhab.core.net.HttpServiceUtil;
 import org.openhab.core.net.NetworkAddressService;
@@ -39,6 +50,10 @@ import org.osgi.service.component.annotations.Reference;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.gson.FieldNamingPolicy;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
 /**
  * The {@link YamahaMusicCastHandlerFactory} is responsible for creating things and thing
  * handlers.
@@ -51,12 +66,34 @@ public class YamahaMusicCastHandlerFactory extends BaseThingHandlerFactory {
 
     private final static Set<ThingTypeUID> SUPPORTED_THING_TYPES_UIDS = Collections
             .singleton(YamahaMusicCastBindingConstants.THING_TYPE_SPEAKER);
+    // MusicCast firmware only copes with a handful of parallel connections, the request scheduler of each speaker keeps
+    // to its maxConcurrentRequests, at most 3, and one more connection is left to the album art download, which is not
+    // scheduled
+    private static final int HTTP_MAX_CONNECTIONS_PER_HOST = 4;
+    private static final int HTTP_MAX_QUEUED_REQUESTS_PER_HOST = 64;
+    // keep the connection to each speaker open between two polls
+    private static final long HTTP_IDLE_TIMEOUT_MS = 60000;
+    // album art of all the speakers, a few hundred images
+    private static final long ALBUM_ART_CACHE_BYTES = 8 * 1024 * 1024;
+    // album art kept on disk between restarts
+    private static final int ALBUM_ART_STORE_BYTES = 32 * 1024 * 1024;
+    // the images stored since are downloaded again after a crash
+    private static final long ALBUM_ART_FLUSH_SECONDS = 60;
     private final Logger logger = LoggerFactory.getLogger(YamahaMusicCastHandlerFactory.class);
+    // Gson is thread-safe, so all the handlers share one instance and its adapters
+    private final Gson gson = new GsonBuilder().setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
+            .registerTypeAdapterFactory(new ModelTypeAdapterFactory())
+            .registerTypeAdapterFactory(new EventTypeAdapterFactory()).create();
+    private final AlbumArtCache albumArtCache = new AlbumArtCache(ALBUM_ART_CACHE_BYTES);
+    private AlbumArtStore albumArtStore;
+    private ScheduledFuture<?> albumArtFlushJob;
     private YamahaMusicCastEventMediator mediator;
     private Map<String, ServiceRegistration<AudioSink>> audioSinkRegistrations = new ConcurrentHashMap<>();
     private UpnpIOService upnpIOService;
     private AudioHTTPServer audioHTTPServer;
     private NetworkAddressService networkAddressService;
+    private HttpClientFactory httpClientFactory;
+    private HttpClient httpClient;
     private String callbackUrl = null;
 
     @Override
@@ -64,8 +101,73 @@ public class YamahaMusicCastHandlerFactory extends BaseThingHandlerFactory {
         super.activate(componentContext);
         Dictionary<String, Object> properties = componentContext.getProperties();
         callbackUrl = (String) properties.get("callbackUrl");
+        startHttpClient();
+        openAlbumArtStore();
     };
 
+    @Override
+    protected void deactivate(ComponentContext componentContext) {
+        stopHttpClient();
+        closeAlbumArtStore();
+        super.deactivate(componentContext);
+    }
+
+    /**
+     * Opens the album art store shared by all the speakers. Without it the album art is only cached in memory.
+     */
+    private void openAlbumArtStore() {
+        try {
+            albumArtStore = new AlbumArtStore(
+                    Paths.get(OpenHAB.getUserDataFolder(), YamahaMusicCastBindingConstants.BINDING_ID),
+                    ALBUM_ART_STORE_BYTES);
+            ScheduledExecutorService scheduler = ThreadPoolManager
+                    .getScheduledPool(YamahaMusicCastBindingConstants.ALBUM_ART_THREADPOOL_NAME);
+            albumArtFlushJob = scheduler.scheduleWithFixedDelay(albumArtStore::flush, ALBUM_ART_FLUSH_SECONDS,
+                    ALBUM_ART_FLUSH_SECONDS, TimeUnit.SECONDS);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to open the album art store: {}", e.getMessage());
+        }
+    }
+
+    private void closeAlbumArtStore() {
+        if (albumArtFlushJob != null) {
+            albumArtFlushJob.cancel(false);
+            albumArtFlushJob = null;
+        }
+        if (albumArtStore != null) {
+            albumArtStore.close();
+            albumArtStore = null;
+        }
+    }
+
+    /**
+     * Creates the {@link HttpClient} shared by all the speakers of this binding. Every request of every handler goes
+     * through this client, so the number of threads and selectors does not grow with the number of devices.
+     */
+    private void startHttpClient() {
+        httpClient = httpClientFactory.createHttpClient(YamahaMusicCastBindingConstants.BINDING_ID);
+        httpClient.setFollowRedirects(false);
+        httpClient.setMaxConnectionsPerDestination(HTTP_MAX_CONNECTIONS_PER_HOST);
+        httpClient.setMaxRequestsQueuedPerDestination(HTTP_MAX_QUEUED_REQUESTS_PER_HOST);
+        httpClient.setIdleTimeout(HTTP_IDLE_TIMEOUT_MS);
+        try {
+            httpClient.start();
+        } catch (Exception e) {
+            logger.warn("Failed to start the HTTP client: {}", e.getMessage());
+        }
+    }
+
+    private void stopHttpClient() {
+        if (httpClient != null) {
+            try {
+                httpClient.stop();
+            } catch (Exception e) {
+                logger.debug("Failed to stop the HTTP client: {}", e.getMessage());
+            }
+            httpClient = null;
+        }
+    }
+
     /**
      * Used by OSGI to inject the mediator in the handler factory.
      *
@@ -101,7 +203,8 @@ public class YamahaMusicCastHandlerFactory extends BaseThingHandlerFactory {
             YamahaMusicCastHandler handler;
             logger.debug("Creating a new YamahaMusicCastHandler...");
             try {
-                handler = new YamahaMusicCastHandler(thing, upnpIOService, audioHTTPServer, callbackUrl);
+                handler = new YamahaMusicCastHandler(thing, upnpIOService, audioHTTPServer, callbackUrl, httpClient,
+                        gson, albumArtCache, albumArtStore, mediator);
                 if (callbackUrl != null) {
                     @SuppressWarnings("unchecked")
                     ServiceRegistration<AudioSink> reg = (ServiceRegistration<AudioSink>) bundleContext
@@ -175,6 +278,15 @@ public class YamahaMusicCastHandlerFactory extends BaseThingHandlerFactory {
         this.audioHTTPServer = null;
     }
 
+    @Reference
+    protected void setHttpClientFactory(HttpClientFactory httpClientFactory) {
+        this.httpClientFactory = httpClientFactory;
+    }
+
+    protected void unsetHttpClientFactory(HttpClientFactory httpClientFactory) {
+        this.httpClientFactory = null;
+    }
+
     @Reference
     protected void setNetworkAddressService(NetworkAddressService networkAddressService) {
         this.networkAddressService = networkAddressService;
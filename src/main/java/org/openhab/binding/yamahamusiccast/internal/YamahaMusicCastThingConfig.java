@@ -26,10 +26,66 @@ public class YamahaMusicCastThingConfig {
 
     private String host = "yamaha";
 
+    /**
+     * Minimum time between two volume requests in milliseconds.
+     */
+    private int volumeInterval = 150;
+
+    /**
+     * Maximum number of requests sent to the device at the same time.
+     */
+    private int maxConcurrentRequests = 2;
+
+    /**
+     * Bounds of the request timeout in milliseconds, the timeout itself follows the measured latency.
+     */
+    private int timeoutFloor = 500;
+    private int timeoutCeiling = 5000;
+
+    /**
+     * Largest width and height of the published album art and of its thumbnail in pixels, 0 keeps the received image.
+     */
+    private int albumArtSize = 300;
+    private int thumbnailSize = 64;
+
+    /**
+     * Time after which all the channels are published again even if unchanged, in minutes, 0 to never publish them
+     * again.
+     */
+    private int resyncInterval = 60;
+
     public String getHost() {
         return host;
     }
 
+    public int getVolumeInterval() {
+        return volumeInterval;
+    }
+
+    public int getMaxConcurrentRequests() {
+        return maxConcurrentRequests;
+    }
+
+    public int getTimeoutFloor() {
+        return timeoutFloor;
+    }
+
+    public int getTimeoutCeiling() {
+        return timeoutCeiling;
+    }
+
+    public int getAlbumArtSize() {
+        return albumArtSize;
+    }
+
+    public int getThumbnailSize() {
+        return thumbnailSize;
+    }
+
+    public int getResyncInterval() {
+        return resyncInterval;
+    }
+
     public int getRefreshInterval() {
         return refresh;
     }
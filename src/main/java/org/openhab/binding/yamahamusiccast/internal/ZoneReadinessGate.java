@@ -0,0 +1,248 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.yamahamusiccast.internal.api.MusicCastException;
+import org.openhab.binding.yamahamusiccast.internal.api.RetryPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link ZoneReadinessGate} holds the commands of one zone while it is powering on. The amplifier rejects most
+ * commands as Guarded until it has booted, so the commands sent right after a power on are kept back until the zone
+ * reports ready, or the ready timeout elapsed, and are then sent in order. A power off is never held: it ends the
+ * wait and the commands still held are dropped, as they were meant for the zone being on. All commands go through
+ * the {@link RetryPolicy}.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+@NonNullByDefault
+public class ZoneReadinessGate {
+
+    private static final long READY_POLL_INTERVAL_MILLIS = 500;
+
+    private final Logger logger = LoggerFactory.getLogger(ZoneReadinessGate.class);
+
+    private final ScheduledExecutorService scheduler;
+    private final RetryPolicy retryPolicy;
+    private final Supplier<CompletableFuture<Boolean>> readyCheck;
+    private final long readyTimeoutMillis;
+
+    private final List<HeldCommand<?>> held = new ArrayList<>();
+    private boolean ready = true;
+    private boolean stopped;
+    private long generation;
+    private long heldCommands;
+    private @Nullable ScheduledFuture<?> pollJob;
+
+    /**
+     * @param scheduler the scheduler used to poll the zone
+     * @param retryPolicy the retry policy of the commands
+     * @param readyCheck tells whether the zone is ready, e.g. from its status
+     * @param readyTimeoutMillis the longest time the commands are held, in milliseconds
+     */
+    public ZoneReadinessGate(ScheduledExecutorService scheduler, RetryPolicy retryPolicy,
+            Supplier<CompletableFuture<Boolean>> readyCheck, long readyTimeoutMillis) {
+        this.scheduler = scheduler;
+        this.retryPolicy = retryPolicy;
+        this.readyCheck = readyCheck;
+        this.readyTimeoutMillis = readyTimeoutMillis;
+    }
+
+    /**
+     * Sends a command, or holds it until the zone is ready.
+     *
+     * @param command creates and sends one attempt of the command
+     * @return the future result of the command
+     */
+    public <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> command) {
+        synchronized (this) {
+            if (stopped) {
+                return CompletableFuture.failedFuture(new MusicCastException("Zone gate stopped"));
+            }
+            if (!ready) {
+                HeldCommand<T> heldCommand = new HeldCommand<>(command);
+                heldCommands++;
+                held.add(heldCommand);
+                return heldCommand.result;
+            }
+        }
+        return retryPolicy.execute(command);
+    }
+
+    /**
+     * Sends the power on command. The zone is not ready from now on, until it reports ready.
+     *
+     * @param command creates and sends one attempt of the power on command
+     * @return the future result of the power on command
+     */
+    public <T> CompletableFuture<T> powerOn(Supplier<CompletableFuture<T>> command) {
+        long current;
+        synchronized (this) {
+            if (stopped) {
+                return CompletableFuture.failedFuture(new MusicCastException("Zone gate stopped"));
+            }
+            ready = false;
+            current = ++generation;
+        }
+        CompletableFuture<T> result = retryPolicy.execute(command);
+        long deadline = System.currentTimeMillis() + readyTimeoutMillis;
+        result.whenComplete((value, e) -> {
+            if (e != null) {
+                // the zone did not power on, there is nothing to wait for
+                open(current);
+            } else {
+                poll(current, deadline);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Sends the power off command right away. The power on in progress is no longer waited for and the commands still
+     * held fail.
+     *
+     * @param command creates and sends one attempt of the power off command
+     * @return the future result of the power off command
+     */
+    public <T> CompletableFuture<T> powerOff(Supplier<CompletableFuture<T>> command) {
+        List<HeldCommand<?>> dropped;
+        synchronized (this) {
+            if (stopped) {
+                return CompletableFuture.failedFuture(new MusicCastException("Zone gate stopped"));
+            }
+            ready = true;
+            dropped = cancel();
+        }
+        fail(dropped, "Zone powered off");
+        return retryPolicy.execute(command);
+    }
+
+    /**
+     * Stops the gate, the zone is no longer polled and the commands still held fail.
+     */
+    public void stop() {
+        List<HeldCommand<?>> dropped;
+        synchronized (this) {
+            stopped = true;
+            dropped = cancel();
+        }
+        fail(dropped, "Zone gate stopped");
+    }
+
+    /**
+     * Ends the wait for the power on in progress.
+     *
+     * @return the commands which were held
+     */
+    private synchronized List<HeldCommand<?>> cancel() {
+        generation++;
+        ScheduledFuture<?> job = pollJob;
+        if (job != null) {
+            job.cancel(false);
+            pollJob = null;
+        }
+        List<HeldCommand<?>> dropped = new ArrayList<>(held);
+        held.clear();
+        return dropped;
+    }
+
+    private void fail(List<HeldCommand<?>> dropped, String reason) {
+        for (HeldCommand<?> command : dropped) {
+            command.result.completeExceptionally(new MusicCastException(reason));
+        }
+    }
+
+    private void poll(long current, long deadline) {
+        synchronized (this) {
+            pollJob = null;
+            if (current != generation) {
+                // stopped, or a newer power on is in progress
+                return;
+            }
+        }
+        readyCheck.get().whenComplete((isReady, e) -> {
+            if (Boolean.TRUE.equals(isReady)) {
+                logger.debug("Zone ready");
+                open(current);
+            } else if (System.currentTimeMillis() + READY_POLL_INTERVAL_MILLIS >= deadline) {
+                logger.debug("Zone not ready after {} ms, sending the held commands anyway", readyTimeoutMillis);
+                open(current);
+            } else {
+                synchronized (this) {
+                    if (current == generation) {
+                        pollJob = scheduler.schedule(() -> poll(current, deadline), READY_POLL_INTERVAL_MILLIS,
+                                TimeUnit.MILLISECONDS);
+                    }
+                }
+            }
+        });
+    }
+
+    private void open(long current) {
+        List<HeldCommand<?>> pending;
+        synchronized (this) {
+            if (current != generation) {
+                // a newer power on is in progress
+                return;
+            }
+            ready = true;
+            pending = new ArrayList<>(held);
+            held.clear();
+        }
+        // one after the other, in the order they were received
+        CompletableFuture<?> chain = CompletableFuture.completedFuture(null);
+        for (HeldCommand<?> command : pending) {
+            chain = chain.handle((value, e) -> null).thenCompose(v -> command.send());
+        }
+    }
+
+    /**
+     * @return the number of commands which were held while the zone powered on
+     */
+    public synchronized long getHeldCommands() {
+        return heldCommands;
+    }
+
+    /**
+     * A command held while the zone powers on.
+     */
+    private class HeldCommand<T> {
+        final Supplier<CompletableFuture<T>> command;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+
+        HeldCommand(Supplier<CompletableFuture<T>> command) {
+            this.command = command;
+        }
+
+        CompletableFuture<T> send() {
+            return retryPolicy.execute(command).whenComplete((value, e) -> {
+                if (e != null) {
+                    result.completeExceptionally(RetryPolicy.unwrap(e));
+                } else {
+                    result.complete(value);
+                }
+            });
+        }
+    }
+}
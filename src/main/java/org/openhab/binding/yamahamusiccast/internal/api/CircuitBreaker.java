@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal.api;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link CircuitBreaker} stops sending requests to a device which does not answer. After a number of consecutive
+ * communication failures the circuit opens and the requests fail immediately. Once the backoff delay has elapsed a
+ * single request is let through as a probe: if it succeeds the circuit closes, otherwise it opens again and the delay
+ * is doubled, up to a maximum.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+@NonNullByDefault
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    /**
+     * Notified when the circuit opens or closes. It is called without holding any lock.
+     */
+    @FunctionalInterface
+    public interface StateListener {
+        void stateChanged(State state);
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    private final int failureThreshold;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final StateListener listener;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long backoffMillis;
+    private long retryAt;
+    private long trips;
+    private long rejected;
+
+    /**
+     * @param failureThreshold the number of consecutive failures opening the circuit
+     * @param initialBackoffMillis the delay before the first probe, in milliseconds
+     * @param maxBackoffMillis the longest delay between two probes, in milliseconds
+     * @param listener notified when the circuit opens or closes
+     */
+    public CircuitBreaker(int failureThreshold, long initialBackoffMillis, long maxBackoffMillis,
+            StateListener listener) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = Math.max(initialBackoffMillis, maxBackoffMillis);
+        this.backoffMillis = initialBackoffMillis;
+        this.listener = listener;
+    }
+
+    /**
+     * Asks whether a request may be sent. When the backoff delay has elapsed, the first caller gets the probe and the
+     * circuit is half-open until {@link #onSuccess()} or {@link #onFailure()} is called.
+     *
+     * @return true if the request may be sent, false if it must fail immediately
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.currentTimeMillis() >= retryAt) {
+                    logger.debug("Circuit half-open, sending a probe");
+                    state = State.HALF_OPEN;
+                    return true;
+                }
+                break;
+            case HALF_OPEN:
+                break;
+        }
+        rejected++;
+        return false;
+    }
+
+    /**
+     * Records a request which reached the device, whatever the device answered.
+     */
+    public void onSuccess() {
+        synchronized (this) {
+            consecutiveFailures = 0;
+            if (state == State.CLOSED) {
+                return;
+            }
+            state = State.CLOSED;
+            backoffMillis = initialBackoffMillis;
+        }
+        logger.debug("Circuit closed");
+        listener.stateChanged(State.CLOSED);
+    }
+
+    /**
+     * Records a request which did not reach the device or got no response.
+     */
+    public void onFailure() {
+        long delay;
+        synchronized (this) {
+            consecutiveFailures++;
+            if (state == State.HALF_OPEN) {
+                backoffMillis = Math.min(maxBackoffMillis, backoffMillis * 2);
+            } else if (state != State.CLOSED || consecutiveFailures < failureThreshold) {
+                return;
+            }
+            state = State.OPEN;
+            trips++;
+            delay = backoffMillis;
+            retryAt = System.currentTimeMillis() + delay;
+        }
+        logger.debug("Circuit open, next probe in {} ms", delay);
+        listener.stateChanged(State.OPEN);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * @return the time left before the next probe may be sent, in milliseconds
+     */
+    public synchronized long getRetryDelayMillis() {
+        return state == State.OPEN ? Math.max(0, retryAt - System.currentTimeMillis()) : 0;
+    }
+
+    /**
+     * @return the number of times the circuit opened
+     */
+    public synchronized long getTrips() {
+        return trips;
+    }
+
+    /**
+     * @return the number of requests failed without being sent
+     */
+    public synchronized long getRejected() {
+        return rejected;
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal.api;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link LatencyEstimator} keeps a smoothed round-trip time and its mean deviation for one device, the same way TCP
+ * computes its retransmission timeout (RFC 6298). The request timeout is the smoothed round-trip time plus four times
+ * the deviation, bounded by a floor and a ceiling. Each timeout doubles the current value until a response is received
+ * again. Until the first response the ceiling is used.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+@NonNullByDefault
+public class LatencyEstimator {
+
+    // gains used by RFC 6298: alpha = 1/8 and beta = 1/4
+    private static final double ALPHA = 0.125;
+    private static final double BETA = 0.25;
+
+    private final long floorMillis;
+    private final long ceilingMillis;
+
+    private boolean sampled;
+    private double smoothed;
+    private double deviation;
+    private int backoff;
+    private long samples;
+    private long timeouts;
+
+    /**
+     * @param floorMillis the shortest timeout, in milliseconds
+     * @param ceilingMillis the longest timeout, in milliseconds
+     */
+    public LatencyEstimator(long floorMillis, long ceilingMillis) {
+        this.floorMillis = Math.max(1, floorMillis);
+        this.ceilingMillis = Math.max(this.floorMillis, ceilingMillis);
+    }
+
+    /**
+     * Records the round-trip time of a request which received a response.
+     *
+     * @param millis the round-trip time, in milliseconds
+     */
+    public synchronized void sample(long millis) {
+        if (!sampled) {
+            smoothed = millis;
+            deviation = millis / 2.0;
+            sampled = true;
+        } else {
+            deviation = (1 - BETA) * deviation + BETA * Math.abs(smoothed - millis);
+            smoothed = (1 - ALPHA) * smoothed + ALPHA * millis;
+        }
+        backoff = 0;
+        samples++;
+    }
+
+    /**
+     * Records a request which timed out. Its duration is not a round-trip time, so it is not sampled.
+     */
+    public synchronized void timedOut() {
+        timeouts++;
+        if (backoff < 16) {
+            backoff++;
+        }
+    }
+
+    /**
+     * @return the timeout of the next request, in milliseconds
+     */
+    public synchronized long getTimeoutMillis() {
+        if (!sampled) {
+            return ceilingMillis;
+        }
+        long timeout = Math.round(smoothed + 4 * deviation) << backoff;
+        return Math.min(ceilingMillis, Math.max(floorMillis, timeout));
+    }
+
+    /**
+     * @return the smoothed round-trip time, in milliseconds
+     */
+    public synchronized long getSmoothedMillis() {
+        return Math.round(smoothed);
+    }
+
+    /**
+     * @return the mean deviation of the round-trip time, in milliseconds
+     */
+    public synchronized long getDeviationMillis() {
+        return Math.round(deviation);
+    }
+
+    /**
+     * @return the number of round-trip times sampled
+     */
+    public synchronized long getSamples() {
+        return samples;
+    }
+
+    /**
+     * @return the number of requests which timed out
+     */
+    public synchronized long getTimeouts() {
+        return timeouts;
+    }
+}
@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal.api;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.client.api.Response;
+import org.eclipse.jetty.client.api.Result;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http.HttpMethod;
+import org.eclipse.jetty.http.HttpStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link MusicCastAlbumArtRequest} downloads the album art image of a device through the {@link HttpClient} of the
+ * binding, without blocking any thread. The whole download is bounded by a timeout and by a maximum size. The image is
+ * read straight into an array of the announced Content-Length, which only grows when the device sends no length.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+@NonNullByDefault
+public class MusicCastAlbumArtRequest {
+
+    private static final int INITIAL_BUFFER_SIZE = 16 * 1024;
+
+    private final Logger logger = LoggerFactory.getLogger(MusicCastAlbumArtRequest.class);
+
+    private final HttpClient httpClient;
+    private final String uri;
+
+    /**
+     * @param httpClient the HTTP client sending the request
+     * @param uri the complete URI of the image
+     */
+    public MusicCastAlbumArtRequest(HttpClient httpClient, String uri) {
+        this.httpClient = httpClient;
+        this.uri = uri;
+    }
+
+    /**
+     * Sends the request without blocking the calling thread. The returned future is completed by the
+     * {@link HttpClient} with the image, or completed exceptionally with a {@link MusicCastException}.
+     *
+     * @param timeoutMillis the total timeout of the download, in milliseconds
+     * @param maxBytes the largest image accepted, in bytes
+     * @return the future image
+     */
+    public CompletableFuture<byte[]> executeAsync(long timeoutMillis, int maxBytes) {
+        CompletableFuture<byte[]> future = new CompletableFuture<>();
+        Request request;
+        try {
+            request = httpClient.newRequest(uri).timeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                    .method(HttpMethod.GET);
+        } catch (IllegalArgumentException e) {
+            future.completeExceptionally(new MusicCastException("Invalid album art URL " + uri, e));
+            return future;
+        }
+        logger.debug(">> {} {}", request.getMethod(), request.getURI());
+        request.send(new ImageListener(maxBytes, future));
+        return future;
+    }
+
+    private static class ImageListener extends Response.Listener.Adapter {
+
+        private final int maxBytes;
+        private final CompletableFuture<byte[]> future;
+
+        private byte[] image = new byte[0];
+        private int length;
+
+        ImageListener(int maxBytes, CompletableFuture<byte[]> future) {
+            this.maxBytes = maxBytes;
+            this.future = future;
+        }
+
+        @Override
+        public void onHeaders(@Nullable Response response) {
+            if (response == null) {
+                return;
+            }
+            long contentLength = response.getHeaders().getLongField(HttpHeader.CONTENT_LENGTH.asString());
+            if (contentLength > maxBytes) {
+                response.abort(new MusicCastException("Album art too large: " + contentLength + " bytes"));
+            } else if (contentLength > 0) {
+                image = new byte[(int) contentLength];
+            }
+        }
+
+        @Override
+        public void onContent(@Nullable Response response, @Nullable ByteBuffer content) {
+            if (response == null || content == null) {
+                return;
+            }
+            int required = length + content.remaining();
+            if (required > maxBytes) {
+                response.abort(new MusicCastException("Album art larger than " + maxBytes + " bytes"));
+                return;
+            }
+            if (required > image.length) {
+                image = Arrays.copyOf(image,
+                        Math.min(maxBytes, Math.max(required, Math.max(INITIAL_BUFFER_SIZE, image.length * 2))));
+            }
+            int count = content.remaining();
+            content.get(image, length, count);
+            length += count;
+        }
+
+        @Override
+        public void onComplete(@Nullable Result result) {
+            if (result == null || result.isFailed()) {
+                Throwable cause = result != null ? result.getFailure() : null;
+                future.completeExceptionally(
+                        cause instanceof MusicCastException ? cause : new MusicCastCommunicationException(cause));
+                return;
+            }
+            int status = result.getResponse().getStatus();
+            if (status != HttpStatus.OK_200) {
+                future.completeExceptionally(new MusicCastException("HTTP status " + status + " for the album art"));
+            } else if (length == 0) {
+                future.completeExceptionally(new MusicCastException("Empty album art"));
+            } else {
+                future.complete(length == image.length ? image : Arrays.copyOf(image, length));
+            }
+        }
+    }
+}
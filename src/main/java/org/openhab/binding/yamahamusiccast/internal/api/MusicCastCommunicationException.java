@@ -0,0 +1,32 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal.api;
+
+/**
+ * The {@link MusicCastCommunicationException} signals that a request did not reach the device or that no response was
+ * received, as opposed to a device answering with an error.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+public class MusicCastCommunicationException extends MusicCastException {
+
+    private static final long serialVersionUID = 2818262375127476331L;
+
+    public MusicCastCommunicationException(String message) {
+        super(message);
+    }
+
+    public MusicCastCommunicationException(Throwable cause) {
+        super(cause);
+    }
+}
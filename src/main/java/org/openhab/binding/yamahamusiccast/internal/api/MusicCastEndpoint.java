@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal.api;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jetty.client.HttpClient;
+import org.openhab.binding.yamahamusiccast.YamahaMusicCastBindingConstants;
+import org.openhab.binding.yamahamusiccast.YamahaMusicCastBindingConstants.Zone;
+import org.openhab.binding.yamahamusiccast.internal.api.model.Response;
+
+import com.google.gson.Gson;
+
+/**
+ * The {@link MusicCastEndpoint} declares one method of the Extended Control API: its path, its query parameter and the
+ * type of its response. A path containing {@link #ZONE} is sent to a zone. The declarations are listed in
+ * {@link MusicCastEndpoints} and compiled once per device into a {@link Template}, which holds the complete URI up to
+ * the parameter value, so a call only encodes the value.
+ *
+ * The Extended Control methods used by the binding take at most one parameter, so an endpoint has either one typed
+ * parameter or none.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ *
+ * @param <P> The type of the parameter, {@link Void} if there is none
+ * @param <T> The response type
+ */
+@NonNullByDefault
+public class MusicCastEndpoint<P, T extends Response> {
+
+    /**
+     * Placeholder for the zone in the path templates.
+     */
+    public static final String ZONE = "{zone}";
+
+    /**
+     * Converts a parameter value to its encoded form in the query string.
+     *
+     * @param <P> The type of the parameter
+     */
+    @FunctionalInterface
+    public interface ParameterType<P> {
+        String encode(P value);
+    }
+
+    public static final ParameterType<String> STRING = MusicCastRequest::encode;
+    public static final ParameterType<Integer> INTEGER = String::valueOf;
+    public static final ParameterType<Boolean> BOOLEAN = String::valueOf;
+
+    private final String path;
+    private final @Nullable String parameter;
+    private final @Nullable ParameterType<P> parameterType;
+    private final Class<T> responseType;
+    private final Map<String, String> headers;
+
+    private MusicCastEndpoint(String path, @Nullable String parameter, @Nullable ParameterType<P> parameterType,
+            Class<T> responseType, Map<String, String> headers) {
+        this.path = path;
+        this.parameter = parameter;
+        this.parameterType = parameterType;
+        this.responseType = responseType;
+        this.headers = headers;
+    }
+
+    /**
+     * Declares a method without parameter.
+     *
+     * @param path the path below {@link YamahaMusicCastBindingConstants#ROOT_PATH}
+     * @param responseType the response type
+     */
+    public static <T extends Response> MusicCastEndpoint<Void, T> of(String path, Class<T> responseType) {
+        return new MusicCastEndpoint<>(path, null, null, responseType, Collections.emptyMap());
+    }
+
+    /**
+     * Declares a method without parameter, sent with additional headers.
+     *
+     * @param path the path below {@link YamahaMusicCastBindingConstants#ROOT_PATH}
+     * @param responseType the response type
+     * @param headers the headers, the map must not be modified afterwards
+     */
+    public static <T extends Response> MusicCastEndpoint<Void, T> of(String path, Class<T> responseType,
+            Map<String, String> headers) {
+        return new MusicCastEndpoint<>(path, null, null, responseType, headers);
+    }
+
+    /**
+     * Declares a method with one parameter.
+     *
+     * @param path the path below {@link YamahaMusicCastBindingConstants#ROOT_PATH}
+     * @param parameter the name of the parameter
+     * @param parameterType the type of the parameter
+     * @param responseType the response type
+     */
+    public static <P, T extends Response> MusicCastEndpoint<P, T> of(String path, String parameter,
+            ParameterType<P> parameterType, Class<T> responseType) {
+        return new MusicCastEndpoint<>(path, parameter, parameterType, responseType, Collections.emptyMap());
+    }
+
+    public boolean isZoneEndpoint() {
+        return path.contains(ZONE);
+    }
+
+    /**
+     * Builds the URIs of this method for one device.
+     *
+     * @param baseUri the base URI of the device, see {@link MusicCastRequest#baseUri(String, int)}
+     * @return the compiled template
+     */
+    public Template<P, T> compile(String baseUri) {
+        return new Template<>(this, baseUri);
+    }
+
+    /**
+     * The URIs of one method for one device, up to the parameter value.
+     *
+     * @param <P> The type of the parameter, {@link Void} if there is none
+     * @param <T> The response type
+     */
+    public static class Template<P, T extends Response> {
+
+        private final MusicCastEndpoint<P, T> endpoint;
+        private final @Nullable String uri;
+        private final Map<Zone, String> zoneUris = new EnumMap<>(Zone.class);
+
+        private Template(MusicCastEndpoint<P, T> endpoint, String baseUri) {
+            this.endpoint = endpoint;
+            String query = endpoint.parameter != null ? "?" + endpoint.parameter + "=" : "";
+            String prefix = baseUri + YamahaMusicCastBindingConstants.ROOT_PATH;
+            if (endpoint.isZoneEndpoint()) {
+                uri = null;
+                for (Zone zone : Zone.values()) {
+                    zoneUris.put(zone, prefix + endpoint.path.replace(ZONE, zone.name()) + query);
+                }
+            } else {
+                uri = prefix + endpoint.path + query;
+            }
+        }
+
+        /**
+         * Creates the request of a method without zone and without parameter.
+         */
+        public MusicCastRequest<T> newRequest(Gson gson, HttpClient httpClient) {
+            return newRequest(gson, httpClient, null, null);
+        }
+
+        /**
+         * Creates a request.
+         *
+         * @param zone the zone, for the methods sent to a zone
+         * @param value the parameter value, for the methods with a parameter
+         */
+        public MusicCastRequest<T> newRequest(Gson gson, HttpClient httpClient, @Nullable Zone zone,
+                @Nullable P value) {
+            String base = zone != null ? zoneUris.get(zone) : uri;
+            if (base == null) {
+                throw new IllegalArgumentException(
+                        "Zone " + zone + " does not match the endpoint " + endpoint.path);
+            }
+            ParameterType<P> type = endpoint.parameterType;
+            String target = (type != null && value != null) ? base + type.encode(value) : base;
+            return new MusicCastRequest<>(endpoint.responseType, gson, httpClient, target, endpoint.headers);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal.api;
+
+import static org.openhab.binding.yamahamusiccast.YamahaMusicCastBindingConstants.*;
+import static org.openhab.binding.yamahamusiccast.internal.api.MusicCastEndpoint.*;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.openhab.binding.yamahamusiccast.internal.api.model.DeviceInfo;
+import org.openhab.binding.yamahamusiccast.internal.api.model.Features;
+import org.openhab.binding.yamahamusiccast.internal.api.model.PlayInfo;
+import org.openhab.binding.yamahamusiccast.internal.api.model.Response;
+import org.openhab.binding.yamahamusiccast.internal.api.model.Status;
+import org.openhab.binding.yamahamusiccast.internal.api.model.SubscribeEvent;
+
+/**
+ * The {@link MusicCastEndpoints} lists the methods of the Extended Control API used by the binding.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+@NonNullByDefault
+public final class MusicCastEndpoints {
+
+    private static final Map<String, String> SUBSCRIBE_HEADERS;
+
+    static {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("X-AppName", SubscribeEvent.appName);
+        headers.put("X-AppPort", String.valueOf(EVENTS_DEFAULT_PORT));
+        SUBSCRIBE_HEADERS = Collections.unmodifiableMap(headers);
+    }
+
+    // System
+    public static final MusicCastEndpoint<Void, DeviceInfo> SYSTEM_GET_DEVICE_INFO = of("/system/getDeviceInfo",
+            DeviceInfo.class);
+    public static final MusicCastEndpoint<Void, Features> SYSTEM_GET_FEATURES = of("/system/getFeatures",
+            Features.class);
+
+    // Events, any request carrying the headers subscribes the sender
+    public static final MusicCastEndpoint<Void, SubscribeEvent> EVENT_SUBSCRIBE = of("", SubscribeEvent.class,
+            SUBSCRIBE_HEADERS);
+
+    // Zone
+    public static final MusicCastEndpoint<Void, Status> ZONE_GET_STATUS = of("/" + ZONE + "/getStatus",
+            Status.class);
+    public static final MusicCastEndpoint<String, Response> ZONE_SET_POWER = of(
+            "/" + ZONE + ZONE_SET_POWER_METHOD, SET_POWER_PARAMETER, STRING, Response.class);
+    public static final MusicCastEndpoint<Integer, Response> ZONE_SET_SLEEP = of(
+            "/" + ZONE + ZONE_SET_SLEEP_METHOD, SET_SLEEP_PARAMETER, INTEGER, Response.class);
+    // the volume is either a value or "up" / "down"
+    public static final MusicCastEndpoint<String, Response> ZONE_SET_VOLUME = of(
+            "/" + ZONE + ZONE_SET_VOLUME_METHOD, SET_VOLUME_PARAMETER, STRING, Response.class);
+    public static final MusicCastEndpoint<Boolean, Response> ZONE_SET_MUTE = of("/" + ZONE + ZONE_SET_MUTE_METHOD,
+            SET_MUTE_PARAMETER, BOOLEAN, Response.class);
+    public static final MusicCastEndpoint<String, Response> ZONE_SET_INPUT = of(
+            "/" + ZONE + ZONE_SET_INPUT_METHOD, SET_INPUT_PARAMETER, STRING, Response.class);
+    public static final MusicCastEndpoint<String, Response> ZONE_SET_SOUND_PROGRAM = of(
+            "/" + ZONE + ZONE_SET_SOUND_PROGRAM_METHOD, SET_SOUND_PROGRAM_PARAMETER, STRING, Response.class);
+    public static final MusicCastEndpoint<String, Response> ZONE_PREPARE_INPUT_CHANGE = of(
+            "/" + ZONE + ZONE_PREPARE_INPUT_CHANGE_METHOD, SET_INPUT_PARAMETER, STRING, Response.class);
+
+    // Net/USB
+    public static final MusicCastEndpoint<Void, PlayInfo> NETUSB_GET_PLAY_INFO = of("/netusb/getPlayInfo",
+            PlayInfo.class);
+    public static final MusicCastEndpoint<String, Response> NETUSB_SET_PLAYBACK = of("/netusb/setPlayback",
+            PLAYBACK_PARAMETER, STRING, Response.class);
+
+    private MusicCastEndpoints() {
+        // constants only
+    }
+}
@@ -12,31 +12,40 @@
  */
 package org.openhab.binding.yamahamusiccast.internal.api;
 
-import static org.openhab.binding.yamahamusiccast.YamahaMusicCastBindingConstants.EVENTS_DEFAULT_PORT;
+import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.jetty.client.HttpClient;
+import org.openhab.binding.yamahamusiccast.internal.api.MusicCastEndpoint.Template;
+import org.openhab.binding.yamahamusiccast.internal.api.MusicCastRequestScheduler.Priority;
 import org.openhab.binding.yamahamusiccast.internal.api.model.SubscribeEvent;
 
 import com.google.gson.Gson;
 
 /**
- * The {@link MusicCastRequest} encapsulates a request sent by the {@link YamahaMusicCast}.
+ * The {@link MusicCastEventRequest} creates the requests subscribing a device to the UDP events.
  *
  * @author Hector Rodriguez Medina - Initial contribution
- *
- * @param <T> The response type expected as a result of the request's execution
  */
 @NonNullByDefault
-public class MusicCastEventRequest<T> extends MusicCastRequest<T> {
+public class MusicCastEventRequest {
+
+    private final Gson gson;
+    private final HttpClient httpClient;
+    private final MusicCastRequestScheduler scheduler;
+    private final Template<Void, SubscribeEvent> subscribe;
 
     /**
      *
      * @param host IP address of the target device
+     * @param scheduler the request scheduler of the target device
      */
-    public MusicCastEventRequest(Gson gson, HttpClient httpClient, String host) {
-        super(gson, httpClient, host, 80);
+    public MusicCastEventRequest(Gson gson, HttpClient httpClient, String host, MusicCastRequestScheduler scheduler) {
+        this.gson = gson;
+        this.httpClient = httpClient;
+        this.scheduler = scheduler;
+        this.subscribe = MusicCastEndpoints.EVENT_SUBSCRIBE.compile(MusicCastRequest.baseUri(host, 80));
     }
 
     /**
@@ -45,13 +54,11 @@ public class MusicCastEventRequest<T> extends MusicCastRequest<T> {
      * @return SubscribeEvent
      * @throws MusicCastException
      */
-    public @Nullable SubscribeEvent subscribeToEvents() throws MusicCastException {
-        setResultType((Class<T>) SubscribeEvent.class);
-        SubscribeEvent subscribeEvent;
-        setPath(SubscribeEvent.url);
-        setHeaders("X-AppName", SubscribeEvent.appName);
-        setHeaders("X-AppPort", EVENTS_DEFAULT_PORT);
-        subscribeEvent = execute();
-        return subscribeEvent;
+    public CompletableFuture<@Nullable SubscribeEvent> subscribeToEventsAsync(Priority priority) {
+        return scheduler.submit(priority, subscribe.newRequest(gson, httpClient));
+    }
+
+    public @Nullable SubscribeEvent subscribeToEvents(Priority priority) throws MusicCastException {
+        return MusicCastRequest.await(subscribeToEventsAsync(priority));
     }
 }
@@ -12,10 +12,14 @@
  */
 package org.openhab.binding.yamahamusiccast.internal.api;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.jetty.client.HttpClient;
 import org.openhab.binding.yamahamusiccast.YamahaMusicCastBindingConstants;
+import org.openhab.binding.yamahamusiccast.internal.api.MusicCastEndpoint.Template;
+import org.openhab.binding.yamahamusiccast.internal.api.MusicCastRequestScheduler.Priority;
 import org.openhab.binding.yamahamusiccast.internal.api.model.PlayInfo;
 import org.openhab.binding.yamahamusiccast.internal.api.model.Response;
 import org.openhab.core.library.types.NextPreviousType;
@@ -26,21 +30,31 @@ import org.openhab.core.types.Command;
 import com.google.gson.Gson;
 
 /**
- * The {@link MusicCastRequest} encapsulates a request sent by the {@link YamahaMusicCast}.
+ * The {@link MusicCastNetUSBRequest} creates the Net/USB related requests sent to a device.
  *
  * @author Hector Rodriguez Medina - Initial contribution
- *
- * @param <T> The response type expected as a result of the request's execution
  */
 @NonNullByDefault
-public class MusicCastNetUSBRequest<T> extends MusicCastRequest<T> {
+public class MusicCastNetUSBRequest {
+
+    private final Gson gson;
+    private final HttpClient httpClient;
+    private final MusicCastRequestScheduler scheduler;
+    private final Template<Void, PlayInfo> getPlayInfo;
+    private final Template<String, Response> setPlayback;
 
     /**
      *
      * @param host IP address of the target device
+     * @param scheduler the request scheduler of the target device
      */
-    public MusicCastNetUSBRequest(Gson gson, HttpClient httpClient, String host) {
-        super(gson, httpClient, host, 80);
+    public MusicCastNetUSBRequest(Gson gson, HttpClient httpClient, String host, MusicCastRequestScheduler scheduler) {
+        this.gson = gson;
+        this.httpClient = httpClient;
+        this.scheduler = scheduler;
+        String baseUri = MusicCastRequest.baseUri(host, 80);
+        this.getPlayInfo = MusicCastEndpoints.NETUSB_GET_PLAY_INFO.compile(baseUri);
+        this.setPlayback = MusicCastEndpoints.NETUSB_SET_PLAYBACK.compile(baseUri);
     }
 
     /**
@@ -49,12 +63,12 @@ public class MusicCastNetUSBRequest<T> extends MusicCastRequest<T> {
      * @return PlayInfo
      * @throws MusicCastException
      */
-    public @Nullable PlayInfo getPlayInfo() throws MusicCastException {
-        setResultType((Class<T>) PlayInfo.class);
-        PlayInfo playInfo;
-        setPath(PlayInfo.url);
-        playInfo = execute();
-        return playInfo;
+    public CompletableFuture<@Nullable PlayInfo> getPlayInfoAsync(Priority priority) {
+        return scheduler.submit(priority, getPlayInfo.newRequest(gson, httpClient));
+    }
+
+    public @Nullable PlayInfo getPlayInfo(Priority priority) throws MusicCastException {
+        return MusicCastRequest.await(getPlayInfoAsync(priority));
     }
 
     /**
@@ -66,13 +80,8 @@ public class MusicCastNetUSBRequest<T> extends MusicCastRequest<T> {
      * @return Response code
      * @throws MusicCastException
      */
-    public @Nullable Response setPlayback(Command command) throws MusicCastException {
-        setResultType((Class<T>) Response.class);
+    public CompletableFuture<@Nullable Response> setPlaybackAsync(Command command) {
         String playback = "";
-        Response response;
-        setPath(YamahaMusicCastBindingConstants.NETWORK_USB_SET_PLAYBACK_PATH);
-        clearQueryParameter();
-
         if (command == PlayPauseType.PLAY) {
             playback = YamahaMusicCastBindingConstants.PLAYBACK_PLAY;
         } else if (command == PlayPauseType.PAUSE) {
@@ -94,8 +103,10 @@ public class MusicCastNetUSBRequest<T> extends MusicCastRequest<T> {
          * break;
          */
 
-        setQueryParameter(YamahaMusicCastBindingConstants.PLAYBACK_PARAMETER, playback);
-        response = execute();
-        return response;
+        return scheduler.submit(Priority.COMMAND, setPlayback.newRequest(gson, httpClient, null, playback));
+    }
+
+    public @Nullable Response setPlayback(Command command) throws MusicCastException {
+        return MusicCastRequest.await(setPlaybackAsync(command));
     }
 }
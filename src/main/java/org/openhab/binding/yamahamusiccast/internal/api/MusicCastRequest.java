@@ -12,212 +12,199 @@
  */
 package org.openhab.binding.yamahamusiccast.internal.api;
 
-import java.net.ConnectException;
-import java.nio.charset.Charset;
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.jetty.client.HttpClient;
-import org.eclipse.jetty.client.api.ContentProvider;
-import org.eclipse.jetty.client.api.ContentResponse;
 import org.eclipse.jetty.client.api.Request;
-import org.eclipse.jetty.client.util.StringContentProvider;
 import org.eclipse.jetty.http.HttpMethod;
 import org.eclipse.jetty.http.HttpScheme;
 import org.eclipse.jetty.http.HttpStatus;
 import org.eclipse.jetty.http.HttpURI;
-import org.eclipse.jetty.http.MimeTypes;
 import org.openhab.binding.yamahamusiccast.internal.api.model.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-import com.google.gson.JsonPrimitive;
-import com.google.gson.JsonSyntaxException;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
 
 /**
  * The {@link MusicCastRequest} encapsulates a request sent by the {@link YamahaMusicCast}.
  *
+ * A request is immutable: the URI, headers and result type are fixed at construction time. A new instance is created
+ * for every call, so requests to the same device can be executed concurrently from any thread.
+ *
  * @author Matthew Bowman - Initial contribution
  *
  * @param <T> The response type expected as a result of the request's execution
  */
 @NonNullByDefault
-public class MusicCastRequest<T> {
-
-    private static final Charset CHARSET_UTF8 = Charset.forName("UTF-8");
-
-    private static final String CONTENT_TYPE_APPLICATION_JSON = MimeTypes.Type.APPLICATION_JSON.asString();
-
-    private static final long TIMEOUT_SECONDS = 5;
+public class MusicCastRequest<T extends Response> {
 
-    private static final String PROPERTY_DATA = "data";
+    private static final long DEFAULT_TIMEOUT_MILLIS = 5000;
 
     private final Logger logger = LoggerFactory.getLogger(MusicCastRequest.class);
 
-    private Gson gson;
-
-    private HttpClient httpClient;
-
-    private String host = "yamaha";
-
-    private int port = 80;
+    private final Gson gson;
 
-    private String path = "/";
+    private final HttpClient httpClient;
 
-    private Map<String, String> queryParameters = new HashMap<>();
+    private final String uri;
 
-    private Map<String, String> bodyParameters = new HashMap<>();
+    private final Map<String, String> requestHeaders;
 
-    private Map<String, String> requestHeaders = new HashMap<>();
-
-    private Class<T> resultType;
+    private final Class<T> resultType;
 
     // Public API
 
-    public MusicCastRequest(Class<T> resultType, Gson gson, HttpClient httpClient, String host, int port) {
+    /**
+     * @param resultType the type of the response
+     * @param gson the Gson instance used to decode the response
+     * @param httpClient the HTTP client sending the request
+     * @param uri the complete URI of the request, query string included
+     * @param requestHeaders the headers of the request, the map is not copied and must not be modified afterwards
+     */
+    public MusicCastRequest(Class<T> resultType, Gson gson, HttpClient httpClient, String uri,
+            Map<String, String> requestHeaders) {
         this.resultType = resultType;
         this.gson = gson;
         this.httpClient = httpClient;
-        this.host = host;
-        this.port = port;
-    }
-
-    public MusicCastRequest(Gson gson, HttpClient httpClient, String host, int port) {
-        this.gson = gson;
-        this.httpClient = httpClient;
-        this.host = host;
-        this.port = port;
-        this.resultType = (Class<T>) Object.class;
-    }
-
-    public void setPath(String path) {
-        this.path = path;
-    }
-
-    public void setResultType(Class<T> resultType) {
-        this.resultType = resultType;
+        this.uri = uri;
+        this.requestHeaders = requestHeaders;
     }
 
-    public void setBodyParameter(String key, Object value) {
-        this.bodyParameters.put(key, String.valueOf(value));
+    public MusicCastRequest(Class<T> resultType, Gson gson, HttpClient httpClient, String uri) {
+        this(resultType, gson, httpClient, uri, Collections.emptyMap());
     }
 
-    public void setQueryParameter(String key, Object value) {
-        this.queryParameters.put(key, String.valueOf(value));
+    /**
+     * Builds the base URI of a device, e.g. {@code http://host:80}. The paths of the Extended Control API are
+     * appended to it.
+     *
+     * @param host the host name or IP address of the device
+     * @param port the HTTP port of the device
+     * @return the base URI, without trailing slash
+     */
+    public static String baseUri(String host, int port) {
+        return new HttpURI(HttpScheme.HTTP.asString(), host, port, null).toString();
     }
 
-    public void setHeaders(String key, Object value) {
-        this.requestHeaders.put(key, String.valueOf(value));
-    }
-
-    public void clearBodyParameter() {
-        this.bodyParameters.clear();
+    /**
+     * URL encodes a query parameter value.
+     *
+     * @param value the value to encode
+     * @return the encoded value
+     */
+    public static String encode(String value) {
+        try {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8.name());
+        } catch (UnsupportedEncodingException e) {
+            // UTF-8 is always supported
+            throw new IllegalStateException(e);
+        }
     }
 
-    public void clearQueryParameter() {
-        this.queryParameters.clear();
+    /**
+     * Executes the request and waits for its result. This is a thin wrapper around {@link #executeAsync()} for the
+     * callers which need the result before going on.
+     *
+     * @return the result of the request
+     * @throws MusicCastException if the request failed or the device answered with an error
+     */
+    public @Nullable T execute() throws MusicCastException {
+        return await(executeAsync());
+    }
+
+    /**
+     * Sends the request without blocking the calling thread, with the default timeout.
+     *
+     * @return the future result of the request
+     * @see #executeAsync(long)
+     */
+    public CompletableFuture<@Nullable T> executeAsync() {
+        return executeAsync(DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Sends the request without blocking the calling thread. The returned future is completed by the
+     * {@link HttpClient} once the response has been received and parsed, or completed exceptionally with a
+     * {@link MusicCastException}.
+     *
+     * @param timeoutMillis the total timeout of the request, in milliseconds
+     * @return the future result of the request
+     */
+    public CompletableFuture<@Nullable T> executeAsync(long timeoutMillis) {
+        CompletableFuture<@Nullable T> future = new CompletableFuture<>();
+        Request request = newRequest(timeoutMillis);
+        logger.debug(">> {} {}", request.getMethod(), request.getURI());
+        request.send(new MusicCastResponseListener<@Nullable T>(httpClient.getByteBufferPool(), this::decode, future));
+        return future;
+    }
+
+    /**
+     * Waits for the given future and unwraps the {@link MusicCastException} it was completed with.
+     *
+     * @param future the future result of a request
+     * @return the result of the request
+     * @throws MusicCastException if the request failed
+     */
+    public static <T> T await(CompletableFuture<T> future) throws MusicCastException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MusicCastException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof MusicCastException) {
+                throw (MusicCastException) cause;
+            }
+            throw new MusicCastException(cause);
+        }
     }
 
-    public void clearHeaders() {
-        this.requestHeaders.clear();
-    }
+    // Private API
 
-    public <@Nullable T extends @Nullable Response> @Nullable T execute() throws MusicCastException {
-        T result = null;
-        String json = getContent();
-        logger.debug("JSON is {}", json);
+    /**
+     * Decodes the response in a single pass over its content, straight into the result type.
+     */
+    private @Nullable T decode(int status, Reader content)
+            throws MusicCastException {
+        checkStatus(status);
         // mgb: only try and unmarshall non-void result types
-        if (!Void.class.equals(resultType)) {
-            JsonObject jsonObject = new JsonParser().parse(json).getAsJsonObject();
-            logger.debug("JsonObject: {}", jsonObject.toString());
-            if (jsonObject.has(PROPERTY_DATA)) {
-                logger.debug("JsonObject has Property data");
-                if (jsonObject.get(PROPERTY_DATA).isJsonArray()) {
-                    logger.debug("Object is array.");
-                    result = (T) gson.fromJson(jsonObject.getAsJsonArray(PROPERTY_DATA), resultType);
-                } else {
-                    result = (T) gson.fromJson(jsonObject.getAsJsonObject(PROPERTY_DATA), resultType);
-                }
-            } else {
-                result = (T) gson.fromJson(json, resultType);
-                // Check the result type and throw an exception if not succesful
-                /**
-                 * code description
-                 * 0 Successful request
-                 * 1 Initializing
-                 * 2 Internal Error
-                 * 3 Invalid Request (A method did not exist, a method wasn’t appropriate etc.)
-                 * 4 Invalid Parameter (Out of range, invalid characters etc.)
-                 * 5 Guarded (Unable to setup in current status etc.)
-                 * 6 Time Out
-                 * 99 Firmware Updating
-                 * (100s are Streaming Service related errors)
-                 * 100 Access Error
-                 */
-                switch (result.getResponseCode()) {
-                    case 0: {
-                        // Great
-                        break;
-                    }
-                    case 1: {
-                        throw new MusicCastException("Initializing");
-                    }
-                    case 2: {
-                        throw new MusicCastException("Internal Error");
-                    }
-                    case 3: {
-                        throw new MusicCastException(
-                                "Invalid Request (A method did not exist, a method wasn’t appropriate etc.)");
-                    }
-                    case 4: {
-                        throw new MusicCastException("Invalid Parameter (Out of range, invalid characters etc.)");
-                    }
-                    case 5: {
-                        throw new MusicCastException("Guarded (Unable to setup in current status etc.)");
-                    }
-                    case 6: {
-                        throw new MusicCastException("Timeout");
-                    }
-                    case 99: {
-                        throw new MusicCastException("Firmware Updating");
-                    }
-                    case 100: {
-                        throw new MusicCastException("Access Error");
-                    }
-                    default: {
-                        throw new MusicCastException("Unknown MusicCast id : " + result.getResponseCode());
-                    }
-                }
-            }
-        } else {
+        if (Void.class.equals(resultType)) {
             logger.error("ResultType is void!");
+            return null;
+        }
+        T result;
+        try {
+            JsonReader reader = new JsonReader(content);
+            result = gson.getAdapter(resultType).read(reader);
+        } catch (IOException | JsonParseException | IllegalStateException e) {
+            throw new MusicCastException("Invalid response: " + e.getMessage(), e);
         }
+        if (result == null) {
+            throw new MusicCastException("Empty response");
+        }
+        checkResponseCode(result.getResponseCode());
         return result;
     }
 
-    // Private API
-
-    private String getContent() throws MusicCastException {
-        String content;
-        ContentResponse response = getContentResponse();
-        int status = response.getStatus();
+    private void checkStatus(int status) throws MusicCastException {
         switch (status) {
             case HttpStatus.OK_200:
-                content = response.getContentAsString();
-                if (logger.isTraceEnabled()) {
-                    logger.trace("<< {} {} \n{}", status, HttpStatus.getMessage(status), prettyPrintJson(content));
-                }
                 break;
             case HttpStatus.BAD_REQUEST_400:
                 throw new MusicCastException("Invalid Credentials");
@@ -226,69 +213,27 @@ public class MusicCastRequest<T> {
             default:
                 throw new MusicCastException("Unknown HTTP status code " + status + " returned by the controller");
         }
-        return content;
-    }
-
-    private ContentResponse getContentResponse() throws MusicCastException {
-        Request request = newRequest();
-        logger.debug(">> {} {}", request.getMethod(), request.getURI());
-        ContentResponse response;
-        try {
-            response = request.send();
-        } catch (TimeoutException | InterruptedException e) {
-            throw new MusicCastException(e);
-        } catch (ExecutionException e) {
-            // mgb: unwrap the cause and try to cleanly handle it
-            Throwable cause = e.getCause();
-            if (cause instanceof ConnectException) {
-                throw new MusicCastException(cause);
-            } else {
-                throw new MusicCastException(cause);
-            }
-        }
-        return response;
     }
 
-    private Request newRequest() {
-        HttpMethod method = bodyParameters.isEmpty() ? HttpMethod.GET : HttpMethod.POST;
-        HttpURI uri = new HttpURI(HttpScheme.HTTP.asString(), host, port, path);
-        Request request = httpClient.newRequest(uri.toString()).timeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
-                .method(method);
-        for (Entry<String, String> entry : queryParameters.entrySet()) {
-            request.param(entry.getKey(), entry.getValue());
+    /**
+     * Checks the response_code of the result, see {@link MusicCastResponseCode}.
+     */
+    private void checkResponseCode(@Nullable Integer responseCode) throws MusicCastException {
+        if (responseCode == null) {
+            throw new MusicCastException("Missing response_code");
         }
-        if (!requestHeaders.isEmpty()) {
-            for (Entry<String, String> entry : requestHeaders.entrySet()) {
-                request.header(entry.getKey(), entry.getValue());
-            }
+        MusicCastResponseCode code = MusicCastResponseCode.fromCode(responseCode);
+        if (code != MusicCastResponseCode.SUCCESSFUL) {
+            throw new MusicCastResponseException(code, responseCode);
         }
-        if (!bodyParameters.isEmpty()) {
-            String jsonBody = getRequestBodyAsJson();
-            ContentProvider content = new StringContentProvider(CONTENT_TYPE_APPLICATION_JSON, jsonBody, CHARSET_UTF8);
-            request = request.content(content);
-        }
-        return request;
     }
 
-    private String getRequestBodyAsJson() {
-        JsonParser jsonParser = new JsonParser();
-        JsonObject jsonObject = new JsonObject();
-        JsonElement jsonElement = null;
-        for (Entry<String, String> entry : bodyParameters.entrySet()) {
-            try {
-                jsonElement = jsonParser.parse(entry.getValue());
-            } catch (JsonSyntaxException e) {
-                jsonElement = new JsonPrimitive(entry.getValue());
-            }
-            jsonObject.add(entry.getKey(), jsonElement);
+    private Request newRequest(long timeoutMillis) {
+        Request request = httpClient.newRequest(uri).timeout(timeoutMillis, TimeUnit.MILLISECONDS)
+                .method(HttpMethod.GET);
+        for (Entry<String, String> entry : requestHeaders.entrySet()) {
+            request.header(entry.getKey(), entry.getValue());
         }
-        return jsonObject.toString();
-    }
-
-    private static String prettyPrintJson(String content) {
-        JsonParser parser = new JsonParser();
-        JsonObject json = parser.parse(content).getAsJsonObject();
-        Gson prettyGson = new GsonBuilder().setPrettyPrinting().create();
-        return prettyGson.toJson(json);
+        return request;
     }
 }
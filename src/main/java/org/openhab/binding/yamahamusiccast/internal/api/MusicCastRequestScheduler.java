@@ -0,0 +1,272 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.yamahamusiccast.internal.api.model.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link MusicCastRequestScheduler} queues all the requests sent to one device and limits how many of them are in
+ * flight at the same time. User commands are sent first, then the follow-up fetches triggered by events and the
+ * periodic polls last. Polls never take the last free slot, so a command does not have to wait behind a full refresh,
+ * unless the device only allows a single request in flight: the poll then takes the only slot, as it would otherwise
+ * never be sent.
+ * The timeout of every request is taken from the {@link LatencyEstimator} of the device, which is fed with the measured
+ * round-trip times, and no request is sent while the {@link CircuitBreaker} of the device is open.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+@NonNullByDefault
+public class MusicCastRequestScheduler {
+
+    /**
+     * The priority of a request, in the order the requests are sent.
+     */
+    public enum Priority {
+        COMMAND,
+        EVENT,
+        POLL
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(MusicCastRequestScheduler.class);
+
+    private final int maxInFlight;
+    private final LatencyEstimator latency;
+    private final CircuitBreaker circuitBreaker;
+    private final PriorityQueue<Task<?>> queue = new PriorityQueue<>();
+
+    private int inFlight;
+    private long sequence;
+    private int maxQueueDepth;
+    private boolean stopped;
+
+    private final long[] executed = new long[Priority.values().length];
+    private final long[] totalWaitMillis = new long[Priority.values().length];
+    private final long[] maxWaitMillis = new long[Priority.values().length];
+
+    /**
+     * @param maxInFlight the maximum number of requests in flight for the device
+     * @param latency the latency estimator of the device
+     * @param circuitBreaker the circuit breaker of the device
+     */
+    public MusicCastRequestScheduler(int maxInFlight, LatencyEstimator latency, CircuitBreaker circuitBreaker) {
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.latency = latency;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * Queues a request. It is sent as soon as a slot is free and no request of a higher priority is waiting.
+     *
+     * @param priority the priority of the request
+     * @param request the request
+     * @return the future result of the request
+     */
+    public <T extends Response> CompletableFuture<@Nullable T> submit(Priority priority, MusicCastRequest<T> request) {
+        Task<T> task;
+        synchronized (this) {
+            task = new Task<>(priority, sequence++, request);
+            if (stopped) {
+                task.future.completeExceptionally(new MusicCastException("Request scheduler stopped"));
+                return task.future;
+            }
+            queue.add(task);
+            maxQueueDepth = Math.max(maxQueueDepth, queue.size());
+        }
+        dispatch();
+        return task.future;
+    }
+
+    /**
+     * Stops the scheduler, the requests still waiting in the queue are failed.
+     */
+    public void stop() {
+        List<Task<?>> pending;
+        synchronized (this) {
+            stopped = true;
+            pending = new ArrayList<>(queue);
+            queue.clear();
+        }
+        for (Task<?> task : pending) {
+            task.future.completeExceptionally(new MusicCastException("Request scheduler stopped"));
+        }
+    }
+
+    private void dispatch() {
+        boolean rejected;
+        do {
+            rejected = false;
+            for (Task<?> task : nextTasks()) {
+                if (!task.start()) {
+                    // the slot is free again, so look at the queue once more
+                    rejected = true;
+                }
+            }
+        } while (rejected);
+    }
+
+    private List<Task<?>> nextTasks() {
+        List<Task<?>> ready = new ArrayList<>();
+        synchronized (this) {
+            Task<?> next;
+            while ((next = queue.peek()) != null) {
+                int limit = (next.priority == Priority.POLL && maxInFlight > 1) ? maxInFlight - 1 : maxInFlight;
+                if (inFlight >= limit) {
+                    break;
+                }
+                queue.poll();
+                inFlight++;
+                long wait = System.currentTimeMillis() - next.queuedAt;
+                int index = next.priority.ordinal();
+                executed[index]++;
+                totalWaitMillis[index] += wait;
+                maxWaitMillis[index] = Math.max(maxWaitMillis[index], wait);
+                ready.add(next);
+            }
+        }
+        return ready;
+    }
+
+    private void done() {
+        synchronized (this) {
+            inFlight--;
+        }
+        dispatch();
+    }
+
+    private static boolean isTimeout(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of requests waiting to be sent
+     */
+    public synchronized int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * @return the highest number of requests that were waiting at the same time
+     */
+    public synchronized int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    /**
+     * @return the number of requests in flight
+     */
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * @param priority the priority
+     * @return the number of requests of this priority sent so far
+     */
+    public synchronized long getExecuted(Priority priority) {
+        return executed[priority.ordinal()];
+    }
+
+    /**
+     * @param priority the priority
+     * @return the average time the requests of this priority waited in the queue, in milliseconds
+     */
+    public synchronized long getAverageWaitMillis(Priority priority) {
+        int index = priority.ordinal();
+        return executed[index] == 0 ? 0 : totalWaitMillis[index] / executed[index];
+    }
+
+    /**
+     * @param priority the priority
+     * @return the longest time a request of this priority waited in the queue, in milliseconds
+     */
+    public synchronized long getMaxWaitMillis(Priority priority) {
+        return maxWaitMillis[priority.ordinal()];
+    }
+
+    private class Task<T extends Response> implements Comparable<Task<?>> {
+        final Priority priority;
+        final long sequence;
+        final long queuedAt = System.currentTimeMillis();
+        final MusicCastRequest<T> request;
+        final CompletableFuture<@Nullable T> future = new CompletableFuture<>();
+
+        Task(Priority priority, long sequence, MusicCastRequest<T> request) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.request = request;
+        }
+
+        /**
+         * Sends the request, or fails it right away when the circuit is open.
+         *
+         * @return false if the request was failed without being sent
+         */
+        boolean start() {
+            if (!circuitBreaker.tryAcquire()) {
+                synchronized (MusicCastRequestScheduler.this) {
+                    inFlight--;
+                }
+                future.completeExceptionally(new MusicCastCommunicationException("Device unreachable"));
+                return false;
+            }
+            CompletableFuture<@Nullable T> result;
+            long startedAt = System.nanoTime();
+            try {
+                result = request.executeAsync(latency.getTimeoutMillis());
+            } catch (RuntimeException e) {
+                logger.debug("Failed to send request: {}", e.getMessage());
+                result = CompletableFuture.failedFuture(new MusicCastCommunicationException(e));
+            }
+            result.whenComplete((response, e) -> {
+                if (e == null) {
+                    latency.sample((System.nanoTime() - startedAt) / 1_000_000);
+                } else if (isTimeout(e)) {
+                    latency.timedOut();
+                }
+                if (e instanceof MusicCastCommunicationException) {
+                    circuitBreaker.onFailure();
+                } else {
+                    circuitBreaker.onSuccess();
+                }
+                done();
+                if (e != null) {
+                    future.completeExceptionally(e);
+                } else {
+                    future.complete(response);
+                }
+            });
+            return true;
+        }
+
+        @Override
+        public int compareTo(Task<?> other) {
+            int result = priority.compareTo(other.priority);
+            return result != 0 ? result : Long.compare(sequence, other.sequence);
+        }
+    }
+}
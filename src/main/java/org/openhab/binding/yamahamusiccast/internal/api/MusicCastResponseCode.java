@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal.api;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link MusicCastResponseCode} lists the values of the response_code field returned by the Extended Control API.
+ * The transient ones are answered while the device is busy, the same request usually succeeds a moment later.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+@NonNullByDefault
+public enum MusicCastResponseCode {
+    SUCCESSFUL(0, "Successful request", false),
+    INITIALIZING(1, "Initializing", true),
+    INTERNAL_ERROR(2, "Internal Error", false),
+    INVALID_REQUEST(3, "Invalid Request (A method did not exist, a method wasn’t appropriate etc.)", false),
+    INVALID_PARAMETER(4, "Invalid Parameter (Out of range, invalid characters etc.)", false),
+    GUARDED(5, "Guarded (Unable to setup in current status etc.)", true),
+    TIMEOUT(6, "Timeout", true),
+    FIRMWARE_UPDATING(99, "Firmware Updating", false),
+    ACCESS_ERROR(100, "Access Error", false),
+    UNKNOWN(-1, "Unknown MusicCast id", false);
+
+    private final int code;
+    private final String description;
+    private final boolean transientError;
+
+    private MusicCastResponseCode(int code, String description, boolean transientError) {
+        this.code = code;
+        this.description = description;
+        this.transientError = transientError;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * @return true if the same request may succeed when it is sent again a bit later
+     */
+    public boolean isTransient() {
+        return transientError;
+    }
+
+    public static MusicCastResponseCode fromCode(int code) {
+        for (MusicCastResponseCode responseCode : values()) {
+            if (responseCode.code == code) {
+                return responseCode;
+            }
+        }
+        return UNKNOWN;
+    }
+}
@@ -0,0 +1,42 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal.api;
+
+/**
+ * The {@link MusicCastResponseException} signals that the device answered a request with an error response_code.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+public class MusicCastResponseException extends MusicCastException {
+
+    private static final long serialVersionUID = -3325128771594651248L;
+
+    private final MusicCastResponseCode responseCode;
+
+    public MusicCastResponseException(MusicCastResponseCode responseCode, int code) {
+        super(responseCode == MusicCastResponseCode.UNKNOWN ? responseCode.getDescription() + " : " + code
+                : responseCode.getDescription());
+        this.responseCode = responseCode;
+    }
+
+    public MusicCastResponseCode getResponseCode() {
+        return responseCode;
+    }
+
+    /**
+     * @return true if the same request may succeed when it is sent again a bit later
+     */
+    public boolean isTransient() {
+        return responseCode.isTransient();
+    }
+}
@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal.api;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jetty.client.api.Response;
+import org.eclipse.jetty.client.api.Result;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.io.ByteBufferPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link MusicCastResponseListener} collects the body of a response in a buffer borrowed from the
+ * {@link ByteBufferPool} of the HTTP client and hands it to a {@link ContentDecoder} as a UTF-8 {@link Reader}, without
+ * building an intermediate {@link String}. The buffer is given back to the pool once the content has been decoded.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ *
+ * @param <T> The type produced by the decoder
+ */
+@NonNullByDefault
+public class MusicCastResponseListener<T> extends Response.Listener.Adapter {
+
+    private static final int INITIAL_BUFFER_SIZE = 2048;
+
+    // the largest Extended Control answers (getPlayInfo) are a few kB
+    private static final int MAX_CONTENT_LENGTH = 256 * 1024;
+
+    /**
+     * Decodes the content of a response.
+     *
+     * @param <T> The type produced by the decoder
+     */
+    @FunctionalInterface
+    public interface ContentDecoder<T> {
+        T decode(int status, Reader content) throws MusicCastException;
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(MusicCastResponseListener.class);
+
+    private final ByteBufferPool bufferPool;
+    private final ContentDecoder<T> decoder;
+    private final CompletableFuture<T> future;
+
+    private @Nullable ByteBuffer buffer;
+
+    public MusicCastResponseListener(ByteBufferPool bufferPool, ContentDecoder<T> decoder,
+            CompletableFuture<T> future) {
+        this.bufferPool = bufferPool;
+        this.decoder = decoder;
+        this.future = future;
+    }
+
+    @Override
+    public void onHeaders(@Nullable Response response) {
+        if (response == null) {
+            return;
+        }
+        long length = response.getHeaders().getLongField(HttpHeader.CONTENT_LENGTH.asString());
+        if (length > MAX_CONTENT_LENGTH) {
+            response.abort(new MusicCastException("Response too large: " + length + " bytes"));
+        } else if (length > 0) {
+            buffer = acquire((int) length);
+        }
+    }
+
+    @Override
+    public void onContent(@Nullable Response response, @Nullable ByteBuffer content) {
+        if (response == null || content == null) {
+            return;
+        }
+        ByteBuffer target = ensureCapacity(content.remaining());
+        if (target == null) {
+            response.abort(new MusicCastException("Response larger than " + MAX_CONTENT_LENGTH + " bytes"));
+            return;
+        }
+        target.put(content);
+    }
+
+    @Override
+    public void onComplete(@Nullable Result result) {
+        try {
+            if (result == null || result.isFailed()) {
+                Throwable cause = result != null ? result.getFailure() : null;
+                future.completeExceptionally(
+                        cause instanceof MusicCastException ? cause : new MusicCastCommunicationException(cause));
+                return;
+            }
+            ByteBuffer content = buffer != null ? buffer : ByteBuffer.allocate(0);
+            content.flip();
+            int status = result.getResponse().getStatus();
+            if (logger.isTraceEnabled()) {
+                logger.trace("<< {} {}", status, StandardCharsets.UTF_8.decode(content.duplicate()));
+            }
+            future.complete(decoder.decode(status, new Utf8Reader(content)));
+        } catch (MusicCastException | RuntimeException e) {
+            future.completeExceptionally(e);
+        } finally {
+            release();
+        }
+    }
+
+    private @Nullable ByteBuffer ensureCapacity(int length) {
+        ByteBuffer current = buffer;
+        if (current == null) {
+            current = acquire(Math.max(length, INITIAL_BUFFER_SIZE));
+            buffer = current;
+        } else if (current.remaining() < length) {
+            int required = current.position() + length;
+            if (required > MAX_CONTENT_LENGTH) {
+                return null;
+            }
+            ByteBuffer larger = acquire(Math.min(MAX_CONTENT_LENGTH, Math.max(required, current.capacity() * 2)));
+            current.flip();
+            larger.put(current);
+            bufferPool.release(current);
+            current = larger;
+            buffer = current;
+        }
+        return current;
+    }
+
+    private ByteBuffer acquire(int size) {
+        ByteBuffer acquired = bufferPool.acquire(size, false);
+        // the pool hands out buffers in flush mode
+        acquired.clear();
+        return acquired;
+    }
+
+    private void release() {
+        ByteBuffer current = buffer;
+        if (current != null) {
+            buffer = null;
+            bufferPool.release(current);
+        }
+    }
+}
@@ -12,29 +12,44 @@
  */
 package org.openhab.binding.yamahamusiccast.internal.api;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.jetty.client.HttpClient;
+import org.openhab.binding.yamahamusiccast.internal.api.MusicCastEndpoint.Template;
+import org.openhab.binding.yamahamusiccast.internal.api.MusicCastRequestScheduler.Priority;
 import org.openhab.binding.yamahamusiccast.internal.api.model.DeviceInfo;
+import org.openhab.binding.yamahamusiccast.internal.api.model.Features;
 
 import com.google.gson.Gson;
 
 /**
- * The {@link MusicCastRequest} encapsulates a request sent by the {@link YamahaMusicCast}.
+ * The {@link MusicCastSystemRequest} creates the system related requests sent to a device.
  *
  * @author Hector Rodriguez Medina - Initial contribution
- *
- * @param <T> The response type expected as a result of the request's execution
  */
 @NonNullByDefault
-public class MusicCastSystemRequest<T> extends MusicCastRequest<T> {
+public class MusicCastSystemRequest {
+
+    private final Gson gson;
+    private final HttpClient httpClient;
+    private final MusicCastRequestScheduler scheduler;
+    private final Template<Void, DeviceInfo> getDeviceInfo;
+    private final Template<Void, Features> getFeatures;
 
     /**
      *
      * @param host IP address of the target device
+     * @param scheduler the request scheduler of the target device
      */
-    public MusicCastSystemRequest(Gson gson, HttpClient httpClient, String host) {
-        super(gson, httpClient, host, 80);
+    public MusicCastSystemRequest(Gson gson, HttpClient httpClient, String host, MusicCastRequestScheduler scheduler) {
+        this.gson = gson;
+        this.httpClient = httpClient;
+        this.scheduler = scheduler;
+        String baseUri = MusicCastRequest.baseUri(host, 80);
+        this.getDeviceInfo = MusicCastEndpoints.SYSTEM_GET_DEVICE_INFO.compile(baseUri);
+        this.getFeatures = MusicCastEndpoints.SYSTEM_GET_FEATURES.compile(baseUri);
     }
 
     /**
@@ -43,11 +58,24 @@ public class MusicCastSystemRequest<T> extends MusicCastRequest<T> {
      * @return DeviceInfo
      * @throws MusicCastException
      */
-    public @Nullable DeviceInfo getDeviceInfo() throws MusicCastException {
-        setResultType((Class<T>) DeviceInfo.class);
-        DeviceInfo info;
-        setPath(DeviceInfo.url);
-        info = execute();
-        return info;
+    public CompletableFuture<@Nullable DeviceInfo> getDeviceInfoAsync(Priority priority) {
+        return scheduler.submit(priority, getDeviceInfo.newRequest(gson, httpClient));
+    }
+
+    public @Nullable DeviceInfo getDeviceInfo(Priority priority) throws MusicCastException {
+        return MusicCastRequest.await(getDeviceInfoAsync(priority));
+    }
+
+    /**
+     * For retrieving the features of a Device, among them its zones
+     *
+     * @return Features
+     */
+    public CompletableFuture<@Nullable Features> getFeaturesAsync(Priority priority) {
+        return scheduler.submit(priority, getFeatures.newRequest(gson, httpClient));
+    }
+
+    public @Nullable Features getFeatures(Priority priority) throws MusicCastException {
+        return MusicCastRequest.await(getFeaturesAsync(priority));
     }
 }
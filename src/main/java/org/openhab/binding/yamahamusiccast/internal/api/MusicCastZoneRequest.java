@@ -12,10 +12,15 @@
  */
 package org.openhab.binding.yamahamusiccast.internal.api;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.jetty.client.HttpClient;
 import org.openhab.binding.yamahamusiccast.YamahaMusicCastBindingConstants;
+import org.openhab.binding.yamahamusiccast.YamahaMusicCastBindingConstants.Zone;
+import org.openhab.binding.yamahamusiccast.internal.api.MusicCastEndpoint.Template;
+import org.openhab.binding.yamahamusiccast.internal.api.MusicCastRequestScheduler.Priority;
 import org.openhab.binding.yamahamusiccast.internal.api.model.Response;
 import org.openhab.binding.yamahamusiccast.internal.api.model.Status;
 import org.openhab.core.library.types.IncreaseDecreaseType;
@@ -25,110 +30,132 @@ import org.openhab.core.types.Command;
 import com.google.gson.Gson;
 
 /**
- * The {@link MusicCastRequest} encapsulates a request sent by the {@link YamahaMusicCast}.
+ * The {@link MusicCastZoneRequest} creates the zone related requests sent to a device. The endpoints are compiled once
+ * from {@link MusicCastEndpoints}, so a call only encodes the parameter value and creates an immutable
+ * {@link MusicCastRequest}.
  *
  * @author Hector Rodriguez Medina - Initial contribution
- *
- * @param <T> The response type expected as a result of the request's execution
  */
 @NonNullByDefault
-public class MusicCastZoneRequest<T> extends MusicCastRequest<T> {
+public class MusicCastZoneRequest {
+
+    private final Gson gson;
+    private final HttpClient httpClient;
+    private final MusicCastRequestScheduler scheduler;
+
+    private final Template<Void, Status> getStatus;
+    private final Template<String, Response> setPower;
+    private final Template<Integer, Response> setSleep;
+    private final Template<String, Response> setVolume;
+    private final Template<Boolean, Response> setMute;
+    private final Template<String, Response> setInput;
+    private final Template<String, Response> setSoundProgram;
+    private final Template<String, Response> prepareInputChange;
 
     /**
      *
      * @param host IP address of the target device
+     * @param scheduler the request scheduler of the target device
      */
-    public MusicCastZoneRequest(Gson gson, HttpClient httpClient, String host) {
-        super(gson, httpClient, host, 80);
+    public MusicCastZoneRequest(Gson gson, HttpClient httpClient, String host, MusicCastRequestScheduler scheduler) {
+        this.gson = gson;
+        this.httpClient = httpClient;
+        this.scheduler = scheduler;
+        String baseUri = MusicCastRequest.baseUri(host, 80);
+        this.getStatus = MusicCastEndpoints.ZONE_GET_STATUS.compile(baseUri);
+        this.setPower = MusicCastEndpoints.ZONE_SET_POWER.compile(baseUri);
+        this.setSleep = MusicCastEndpoints.ZONE_SET_SLEEP.compile(baseUri);
+        this.setVolume = MusicCastEndpoints.ZONE_SET_VOLUME.compile(baseUri);
+        this.setMute = MusicCastEndpoints.ZONE_SET_MUTE.compile(baseUri);
+        this.setInput = MusicCastEndpoints.ZONE_SET_INPUT.compile(baseUri);
+        this.setSoundProgram = MusicCastEndpoints.ZONE_SET_SOUND_PROGRAM.compile(baseUri);
+        this.prepareInputChange = MusicCastEndpoints.ZONE_PREPARE_INPUT_CHANGE.compile(baseUri);
     }
 
     /**
      * For retrieving basic information of a Device
      *
      * @return Status
-     * @throws MusicCastException
      */
-    public @Nullable Status getStatus(String zone) throws MusicCastException {
-        setResultType((Class<T>) Status.class);
-        String url = YamahaMusicCastBindingConstants.ROOT_PATH + "/" + zone + Status.path;
-        Status status;
-        setPath(url);
-        status = execute();
-        return status;
+    public CompletableFuture<@Nullable Status> getStatusAsync(Zone zone, Priority priority) {
+        return scheduler.submit(priority, getStatus.newRequest(gson, httpClient, zone, null));
     }
 
-    public @Nullable Response setPower(String zone, Command command) throws MusicCastException {
-        setResultType((Class<T>) Response.class);
-        String url = YamahaMusicCastBindingConstants.ROOT_PATH + "/" + zone
-                + YamahaMusicCastBindingConstants.ZONE_SET_POWER_METHOD;
-        String power = "";
-        Response response;
-        setPath(url);
-        clearQueryParameter();
+    public @Nullable Status getStatus(Zone zone, Priority priority) throws MusicCastException {
+        return MusicCastRequest.await(getStatusAsync(zone, priority));
+    }
 
+    public CompletableFuture<@Nullable Response> setPowerAsync(Zone zone, Command command) {
+        String power = "";
         if (command == OnOffType.ON) {
             power = YamahaMusicCastBindingConstants.ZONE_POWER_ON;
         } else if (command == OnOffType.OFF) {
             power = YamahaMusicCastBindingConstants.ZONE_POWER_STANDBY;
         }
+        return execute(setPower, zone, power);
+    }
 
-        setQueryParameter(YamahaMusicCastBindingConstants.SET_POWER_PARAMETER, power);
-        response = execute();
-        return response;
+    public @Nullable Response setPower(Zone zone, Command command) throws MusicCastException {
+        return MusicCastRequest.await(setPowerAsync(zone, command));
     }
 
-    public @Nullable Response setVolume(String zone, Command command, Integer maxVolume) throws MusicCastException {
-        setResultType((Class<T>) Response.class);
-        String url = YamahaMusicCastBindingConstants.ROOT_PATH + "/" + zone
-                + YamahaMusicCastBindingConstants.ZONE_SET_VOLUME_METHOD;
-        Integer adjustedVolume;
+    /**
+     * For setting the sleep timer
+     *
+     * @param minutes the timer in minutes, 0 / 30 / 60 / 90 / 120
+     */
+    public CompletableFuture<@Nullable Response> setSleepAsync(Zone zone, int minutes) {
+        return execute(setSleep, zone, minutes);
+    }
+
+    public CompletableFuture<@Nullable Response> setVolumeAsync(Zone zone, Command command, Integer maxVolume) {
         String volume;
         if (command == IncreaseDecreaseType.INCREASE) {
             volume = "up";
         } else if (command == IncreaseDecreaseType.DECREASE) {
             volume = "down";
         } else {
-            adjustedVolume = Integer.valueOf(command.toString()) * maxVolume / 100;
-            volume = adjustedVolume.toString();
+            volume = String.valueOf(Integer.valueOf(command.toString()) * maxVolume / 100);
         }
-        Response response;
-        setPath(url);
-        clearQueryParameter();
-        setQueryParameter(YamahaMusicCastBindingConstants.SET_VOLUME_PARAMETER, volume);
-        response = execute();
-        return response;
+        return execute(setVolume, zone, volume);
     }
 
-    public @Nullable Response setMute(String zone, Command command) throws MusicCastException {
-        setResultType((Class<T>) Response.class);
-        String url = YamahaMusicCastBindingConstants.ROOT_PATH + "/" + zone
-                + YamahaMusicCastBindingConstants.ZONE_SET_MUTE_METHOD;
-        boolean mute = false;
-        Response response;
-        setPath(url);
-        clearQueryParameter();
+    public @Nullable Response setVolume(Zone zone, Command command, Integer maxVolume) throws MusicCastException {
+        return MusicCastRequest.await(setVolumeAsync(zone, command, maxVolume));
+    }
 
-        if (command == OnOffType.ON) {
-            mute = true;
-        } else if (command == OnOffType.OFF) {
-            mute = false;
-        }
+    public CompletableFuture<@Nullable Response> setMuteAsync(Zone zone, Command command) {
+        return execute(setMute, zone, command == OnOffType.ON);
+    }
+
+    public @Nullable Response setMute(Zone zone, Command command) throws MusicCastException {
+        return MusicCastRequest.await(setMuteAsync(zone, command));
+    }
+
+    public CompletableFuture<@Nullable Response> setInputAsync(Zone zone, Command command) {
+        return execute(setInput, zone, command.toString());
+    }
 
-        setQueryParameter(YamahaMusicCastBindingConstants.SET_MUTE_PARAMETER, mute);
-        response = execute();
-        return response;
+    public @Nullable Response setInput(Zone zone, Command command) throws MusicCastException {
+        return MusicCastRequest.await(setInputAsync(zone, command));
+    }
+
+    /**
+     * For selecting a sound program, the programs available are listed by system/getFeatures
+     */
+    public CompletableFuture<@Nullable Response> setSoundProgramAsync(Zone zone, String program) {
+        return execute(setSoundProgram, zone, program);
+    }
+
+    /**
+     * Lets the device get ready for an input change, e.g. to power up the network module before switching to a
+     * network source
+     */
+    public CompletableFuture<@Nullable Response> prepareInputChangeAsync(Zone zone, String input) {
+        return execute(prepareInputChange, zone, input);
     }
 
-    public @Nullable Response setInput(String zone, Command command) throws MusicCastException {
-        setResultType((Class<T>) Response.class);
-        String url = YamahaMusicCastBindingConstants.ROOT_PATH + "/" + zone
-                + YamahaMusicCastBindingConstants.ZONE_SET_INPUT_METHOD;
-        String input = command.toString();
-        Response response;
-        setPath(url);
-        clearQueryParameter();
-        setQueryParameter(YamahaMusicCastBindingConstants.SET_INPUT_PARAMETER, input);
-        response = execute();
-        return response;
+    private <P> CompletableFuture<@Nullable Response> execute(Template<P, Response> template, Zone zone, P value) {
+        return scheduler.submit(Priority.COMMAND, template.newRequest(gson, httpClient, zone, value));
     }
 }
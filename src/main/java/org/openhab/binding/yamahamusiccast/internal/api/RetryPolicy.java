@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal.api;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link RetryPolicy} sends a request again when the device answered with a transient response code, see
+ * {@link MusicCastResponseException#isTransient()}. The delay between two attempts doubles up to a maximum and is
+ * randomized, so the retries of several commands do not hit the device together. Once the deadline would be passed
+ * the last error is returned.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+@NonNullByDefault
+public class RetryPolicy {
+
+    private final Logger logger = LoggerFactory.getLogger(RetryPolicy.class);
+
+    private final ScheduledExecutorService scheduler;
+    private final long initialDelayMillis;
+    private final long maxDelayMillis;
+    private final long deadlineMillis;
+
+    private final AtomicLong retries = new AtomicLong();
+    private volatile boolean stopped;
+
+    /**
+     * @param scheduler the scheduler used to delay the next attempt
+     * @param initialDelayMillis the delay before the first retry, in milliseconds
+     * @param maxDelayMillis the longest delay between two attempts, in milliseconds
+     * @param deadlineMillis the time after which no more attempts are made, in milliseconds
+     */
+    public RetryPolicy(ScheduledExecutorService scheduler, long initialDelayMillis, long maxDelayMillis,
+            long deadlineMillis) {
+        this.scheduler = scheduler;
+        this.initialDelayMillis = Math.max(1, initialDelayMillis);
+        this.maxDelayMillis = Math.max(this.initialDelayMillis, maxDelayMillis);
+        this.deadlineMillis = deadlineMillis;
+    }
+
+    /**
+     * Sends a request, and sends it again as long as it fails with a transient error and the deadline is not reached.
+     *
+     * @param request creates and sends one attempt of the request
+     * @return the future result of the last attempt
+     */
+    public <T> CompletableFuture<T> execute(Supplier<CompletableFuture<T>> request) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attempt(request, result, System.currentTimeMillis() + deadlineMillis, initialDelayMillis);
+        return result;
+    }
+
+    /**
+     * Stops retrying, the retries scheduled fail instead of being sent.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    private <T> void attempt(Supplier<CompletableFuture<T>> request, CompletableFuture<T> result, long deadline,
+            long delay) {
+        if (stopped) {
+            result.completeExceptionally(new MusicCastException("Retry policy stopped"));
+            return;
+        }
+        CompletableFuture<T> attempt;
+        try {
+            attempt = request.get();
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+            return;
+        }
+        attempt.whenComplete((value, e) -> {
+            if (e == null) {
+                result.complete(value);
+                return;
+            }
+            Throwable cause = unwrap(e);
+            long jittered = ThreadLocalRandom.current().nextLong(delay / 2, delay + 1);
+            if (!stopped && cause instanceof MusicCastResponseException
+                    && ((MusicCastResponseException) cause).isTransient()
+                    && System.currentTimeMillis() + jittered < deadline) {
+                retries.incrementAndGet();
+                logger.debug("Device answered '{}', retrying in {} ms", cause.getMessage(), jittered);
+                scheduler.schedule(() -> attempt(request, result, deadline, Math.min(maxDelayMillis, delay * 2)),
+                        jittered, TimeUnit.MILLISECONDS);
+            } else {
+                result.completeExceptionally(cause);
+            }
+        });
+    }
+
+    /**
+     * @return the number of retries sent so far
+     */
+    public long getRetries() {
+        return retries.get();
+    }
+
+    /**
+     * Removes the {@link CompletionException} and {@link ExecutionException} wrappers added by the futures.
+     *
+     * @param e the exception a future was completed with
+     * @return the original exception
+     */
+    public static Throwable unwrap(Throwable e) {
+        Throwable cause = e;
+        Throwable inner;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                && (inner = cause.getCause()) != null) {
+            cause = inner;
+        }
+        return cause;
+    }
+}
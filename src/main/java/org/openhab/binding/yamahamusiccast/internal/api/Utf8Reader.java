@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal.api;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * The {@link Utf8Reader} decodes UTF-8 straight from a {@link ByteBuffer} into the array of the caller, so no
+ * intermediate byte or char arrays are allocated. Malformed input, e.g. a stray continuation byte or a truncated
+ * sequence, is replaced by U+FFFD as the {@link String} constructors do. The content is consumed as it is read.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+@NonNullByDefault
+public class Utf8Reader extends Reader {
+
+    private final ByteBuffer content;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private boolean decoded;
+    private int pendingLowSurrogate = -1;
+
+    /**
+     * @param content the UTF-8 content, read from its position to its limit
+     */
+    public Utf8Reader(ByteBuffer content) {
+        this.content = content;
+    }
+
+    @Override
+    public int read(char @Nullable [] cbuf, int off, int len) throws IOException {
+        if (cbuf == null || len == 0) {
+            return 0;
+        }
+        CharBuffer target = CharBuffer.wrap(cbuf, off, len);
+        if (pendingLowSurrogate >= 0) {
+            target.put((char) pendingLowSurrogate);
+            pendingLowSurrogate = -1;
+        }
+        decode(target);
+        if (target.position() == off && !decoded) {
+            // a surrogate pair does not fit in a single char
+            CharBuffer pair = CharBuffer.allocate(2);
+            decode(pair);
+            pair.flip();
+            if (pair.hasRemaining()) {
+                target.put(pair.get());
+            }
+            if (pair.hasRemaining()) {
+                pendingLowSurrogate = pair.get();
+            }
+        }
+        int count = target.position() - off;
+        return count == 0 ? -1 : count;
+    }
+
+    private void decode(CharBuffer target) {
+        if (decoded) {
+            return;
+        }
+        // the whole content is in the buffer, so a truncated sequence at its end is malformed
+        CoderResult result = decoder.decode(content, target, true);
+        if (result.isUnderflow()) {
+            decoded = decoder.flush(target).isUnderflow();
+        }
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,41 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal.api.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Features, the parts of /system/getFeatures used by the binding
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+public class Features extends Response {
+
+    protected final List<String> zones = new ArrayList<>();
+    protected final List<String> netUSBInputs = new ArrayList<>();
+
+    /*
+     * Returns the IDs of the zones of the device, e.g. "main", "zone2"
+     */
+    public List<String> getZones() {
+        return zones;
+    }
+
+    /*
+     * Returns the IDs of the inputs played by the Net/USB player, those whose play_info_type is "netusb"
+     */
+    public List<String> getNetUSBInputs() {
+        return netUSBInputs;
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal.api.model;
+
+import java.io.IOException;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * The {@link ModelTypeAdapter} is the base of the hand-written adapters of the models. Only the reading is
+ * hand-written, as the models are read from the device on every request. Writing, e.g. to log a model, is left to the
+ * adapter Gson would have used without this one. The helpers read a value of the expected type and accept
+ * {@code null}.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ *
+ * @param <T> The model type
+ */
+public abstract class ModelTypeAdapter<T> extends TypeAdapter<T> {
+
+    private final TypeAdapter<T> writer;
+
+    /**
+     * @param writer the adapter writing the model, see {@link com.google.gson.Gson#getDelegateAdapter}
+     */
+    protected ModelTypeAdapter(TypeAdapter<T> writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void write(JsonWriter out, T value) throws IOException {
+        writer.write(out, value);
+    }
+
+    protected static String nextString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    protected static Integer nextInteger(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextInt();
+    }
+
+    protected static Boolean nextBoolean(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextBoolean();
+    }
+
+    protected static float nextFloat(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return 0;
+        }
+        return (float) in.nextDouble();
+    }
+}
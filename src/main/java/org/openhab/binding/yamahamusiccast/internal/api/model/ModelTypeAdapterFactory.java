@@ -0,0 +1,361 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal.api.model;
+
+import java.io.IOException;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+
+/**
+ * The {@link ModelTypeAdapterFactory} provides the adapters of the responses of the Extended Control API. Each adapter
+ * reads the fields it knows by name, straight into the model, and skips the other ones without building them.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+public class ModelTypeAdapterFactory implements TypeAdapterFactory {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> rawType = type.getRawType();
+        TypeAdapter<?> adapter;
+        if (rawType == Status.class) {
+            adapter = new StatusAdapter(writer(gson, Status.class));
+        } else if (rawType == PlayInfo.class) {
+            adapter = new PlayInfoAdapter(writer(gson, PlayInfo.class));
+        } else if (rawType == DeviceInfo.class) {
+            adapter = new DeviceInfoAdapter(writer(gson, DeviceInfo.class));
+        } else if (rawType == Features.class) {
+            adapter = new FeaturesAdapter(writer(gson, Features.class));
+        } else if (rawType == SubscribeEvent.class) {
+            adapter = new SubscribeEventAdapter(writer(gson, SubscribeEvent.class));
+        } else if (rawType == Response.class) {
+            adapter = new ResponseAdapter(writer(gson, Response.class));
+        } else {
+            return null;
+        }
+        return (TypeAdapter<T>) adapter.nullSafe();
+    }
+
+    private <M> TypeAdapter<M> writer(Gson gson, Class<M> model) {
+        return gson.getDelegateAdapter(this, TypeToken.get(model));
+    }
+
+    private static class ResponseAdapter extends ModelTypeAdapter<Response> {
+        ResponseAdapter(TypeAdapter<Response> writer) {
+            super(writer);
+        }
+
+        @Override
+        public Response read(JsonReader in) throws IOException {
+            Response response = new Response();
+            in.beginObject();
+            while (in.hasNext()) {
+                if ("response_code".equals(in.nextName())) {
+                    response.responseCode = nextInteger(in);
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return response;
+        }
+    }
+
+    private static class SubscribeEventAdapter extends ModelTypeAdapter<SubscribeEvent> {
+        SubscribeEventAdapter(TypeAdapter<SubscribeEvent> writer) {
+            super(writer);
+        }
+
+        @Override
+        public SubscribeEvent read(JsonReader in) throws IOException {
+            SubscribeEvent response = new SubscribeEvent();
+            in.beginObject();
+            while (in.hasNext()) {
+                if ("response_code".equals(in.nextName())) {
+                    response.responseCode = nextInteger(in);
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return response;
+        }
+    }
+
+    private static class StatusAdapter extends ModelTypeAdapter<Status> {
+        StatusAdapter(TypeAdapter<Status> writer) {
+            super(writer);
+        }
+
+        @Override
+        public Status read(JsonReader in) throws IOException {
+            Status status = new Status();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "response_code":
+                        status.responseCode = nextInteger(in);
+                        break;
+                    case "power":
+                        status.power = nextString(in);
+                        break;
+                    case "volume":
+                        status.volume = nextInteger(in);
+                        break;
+                    case "mute":
+                        status.mute = Boolean.TRUE.equals(nextBoolean(in));
+                        break;
+                    case "max_volume":
+                        status.maxVolume = nextInteger(in);
+                        break;
+                    case "input":
+                        status.input = nextString(in);
+                        break;
+                    case "distribution_enable":
+                        status.distributionEnable = Boolean.TRUE.equals(nextBoolean(in));
+                        break;
+                    case "sound_program":
+                        status.soundProgram = nextString(in);
+                        break;
+                    case "clear_voice":
+                        status.clearVoice = Boolean.TRUE.equals(nextBoolean(in));
+                        break;
+                    case "subwoofer_volume":
+                        status.subwooferVolume = nextInteger(in);
+                        break;
+                    case "link_control":
+                        status.linkControl = nextString(in);
+                        break;
+                    case "link_audio_delay":
+                        status.linkAudioDelay = nextString(in);
+                        break;
+                    case "link_audio_quality":
+                        status.linkAudioQuality = nextString(in);
+                        break;
+                    case "disable_flags":
+                        status.disableFlags = nextInteger(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return status;
+        }
+    }
+
+    private static class PlayInfoAdapter extends ModelTypeAdapter<PlayInfo> {
+        PlayInfoAdapter(TypeAdapter<PlayInfo> writer) {
+            super(writer);
+        }
+
+        @Override
+        public PlayInfo read(JsonReader in) throws IOException {
+            PlayInfo playInfo = new PlayInfo();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "response_code":
+                        playInfo.responseCode = nextInteger(in);
+                        break;
+                    case "input":
+                        playInfo.input = nextString(in);
+                        break;
+                    case "play_queue_type":
+                        playInfo.playQueueType = nextString(in);
+                        break;
+                    case "playback":
+                        playInfo.playback = nextString(in);
+                        break;
+                    case "repeat":
+                        playInfo.repeat = nextString(in);
+                        break;
+                    case "shuffle":
+                        playInfo.shuffle = nextString(in);
+                        break;
+                    case "play_time":
+                        playInfo.playTime = nextInteger(in);
+                        break;
+                    case "total_time":
+                        playInfo.totalTime = nextInteger(in);
+                        break;
+                    case "artist":
+                        playInfo.artist = nextString(in);
+                        break;
+                    case "album":
+                        playInfo.album = nextString(in);
+                        break;
+                    case "track":
+                        playInfo.track = nextString(in);
+                        break;
+                    case "albumart_url":
+                        playInfo.albumartUrl = nextString(in);
+                        break;
+                    case "albumart_id":
+                        playInfo.albumartId = nextInteger(in);
+                        break;
+                    case "usb_devicetype":
+                        playInfo.usbDevicetype = nextString(in);
+                        break;
+                    case "auto_stopped":
+                        playInfo.autoStopped = nextBoolean(in);
+                        break;
+                    case "attribute":
+                        playInfo.attribute = nextInteger(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return playInfo;
+        }
+    }
+
+    private static class DeviceInfoAdapter extends ModelTypeAdapter<DeviceInfo> {
+        DeviceInfoAdapter(TypeAdapter<DeviceInfo> writer) {
+            super(writer);
+        }
+
+        @Override
+        public DeviceInfo read(JsonReader in) throws IOException {
+            DeviceInfo deviceInfo = new DeviceInfo();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "response_code":
+                        deviceInfo.responseCode = nextInteger(in);
+                        break;
+                    case "model_name":
+                        deviceInfo.modelName = nextString(in);
+                        break;
+                    case "destination":
+                        deviceInfo.destination = nextString(in);
+                        break;
+                    case "device_id":
+                        deviceInfo.deviceId = nextString(in);
+                        break;
+                    case "system_version":
+                        deviceInfo.systemVersion = nextFloat(in);
+                        break;
+                    case "api_version":
+                        deviceInfo.apiVersion = nextFloat(in);
+                        break;
+                    case "netmodule_version":
+                        deviceInfo.netmoduleVersion = nextString(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return deviceInfo;
+        }
+    }
+
+    private static class FeaturesAdapter extends ModelTypeAdapter<Features> {
+        FeaturesAdapter(TypeAdapter<Features> writer) {
+            super(writer);
+        }
+
+        @Override
+        public Features read(JsonReader in) throws IOException {
+            Features features = new Features();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "response_code":
+                        features.responseCode = nextInteger(in);
+                        break;
+                    case "system":
+                        readSystem(features, in);
+                        break;
+                    case "zone":
+                        readZones(features, in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return features;
+        }
+
+        private static void readSystem(Features features, JsonReader in) throws IOException {
+            in.beginObject();
+            while (in.hasNext()) {
+                if ("input_list".equals(in.nextName())) {
+                    readInputs(features, in);
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+        }
+
+        private static void readInputs(Features features, JsonReader in) throws IOException {
+            in.beginArray();
+            while (in.hasNext()) {
+                String id = null;
+                String playInfoType = null;
+                in.beginObject();
+                while (in.hasNext()) {
+                    switch (in.nextName()) {
+                        case "id":
+                            id = nextString(in);
+                            break;
+                        case "play_info_type":
+                            playInfoType = nextString(in);
+                            break;
+                        default:
+                            in.skipValue();
+                            break;
+                    }
+                }
+                in.endObject();
+                if (id != null && "netusb".equals(playInfoType)) {
+                    features.netUSBInputs.add(id);
+                }
+            }
+            in.endArray();
+        }
+
+        private static void readZones(Features features, JsonReader in) throws IOException {
+            in.beginArray();
+            while (in.hasNext()) {
+                in.beginObject();
+                while (in.hasNext()) {
+                    if ("id".equals(in.nextName())) {
+                        String id = nextString(in);
+                        if (id != null) {
+                            features.zones.add(id);
+                        }
+                    } else {
+                        in.skipValue();
+                    }
+                }
+                in.endObject();
+            }
+            in.endArray();
+        }
+    }
+}
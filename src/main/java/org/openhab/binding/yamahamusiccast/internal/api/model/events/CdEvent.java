@@ -43,4 +43,13 @@ public class CdEvent {
     public Boolean getPlayInfoUpdated() {
         return playInfoUpdated;
     }
+
+    /*
+     * Clears the fields, so the instance can be filled again by the next event
+     */
+    void reset() {
+        deviceStatus = null;
+        playTime = null;
+        playInfoUpdated = null;
+    }
 }
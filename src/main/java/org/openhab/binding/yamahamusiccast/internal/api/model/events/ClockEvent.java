@@ -27,4 +27,11 @@ public class ClockEvent {
     public Boolean getSettingsUpdated() {
         return settingsUpdated;
     }
+
+    /*
+     * Clears the fields, so the instance can be filled again by the next event
+     */
+    void reset() {
+        settingsUpdated = null;
+    }
 }
@@ -28,4 +28,11 @@ public class DistEvent {
     public Boolean getDistInfoUpdated() {
         return distInfoUpdated;
     }
+
+    /*
+     * Clears the fields, so the instance can be filled again by the next event
+     */
+    void reset() {
+        distInfoUpdated = null;
+    }
 }
@@ -0,0 +1,372 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal.api.model.events;
+
+import java.io.IOException;
+
+import org.openhab.binding.yamahamusiccast.internal.api.model.ModelTypeAdapter;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+
+/**
+ * The {@link EventTypeAdapterFactory} provides the adapters of the sections of the UDP events. Each adapter reads the
+ * fields it knows by name, straight into the model, and skips the other ones without building them. The
+ * {@link MusicCastEventDecoder} uses the same code to fill its reusable sections.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+public class EventTypeAdapterFactory implements TypeAdapterFactory {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> rawType = type.getRawType();
+        TypeAdapter<?> adapter;
+        if (rawType == ZoneEvent.class) {
+            adapter = new ZoneEventAdapter(writer(gson, ZoneEvent.class));
+        } else if (rawType == NetUSBEvent.class) {
+            adapter = new NetUSBEventAdapter(writer(gson, NetUSBEvent.class));
+        } else if (rawType == SystemEvent.class) {
+            adapter = new SystemEventAdapter(writer(gson, SystemEvent.class));
+        } else if (rawType == IdEvent.class) {
+            adapter = new IdEventAdapter(writer(gson, IdEvent.class));
+        } else if (rawType == TunerEvent.class) {
+            adapter = new TunerEventAdapter(writer(gson, TunerEvent.class));
+        } else if (rawType == CdEvent.class) {
+            adapter = new CdEventAdapter(writer(gson, CdEvent.class));
+        } else if (rawType == ClockEvent.class) {
+            adapter = new ClockEventAdapter(writer(gson, ClockEvent.class));
+        } else if (rawType == DistEvent.class) {
+            adapter = new DistEventAdapter(writer(gson, DistEvent.class));
+        } else {
+            return null;
+        }
+        return (TypeAdapter<T>) adapter.nullSafe();
+    }
+
+    private <M> TypeAdapter<M> writer(Gson gson, Class<M> model) {
+        return gson.getDelegateAdapter(this, TypeToken.get(model));
+    }
+
+    static class ZoneEventAdapter extends ModelTypeAdapter<ZoneEvent> {
+        ZoneEventAdapter(TypeAdapter<ZoneEvent> writer) {
+            super(writer);
+        }
+
+        @Override
+        public ZoneEvent read(JsonReader in) throws IOException {
+            ZoneEvent event = new ZoneEvent();
+            readInto(in, event);
+            return event;
+        }
+
+        static void readInto(JsonReader in, ZoneEvent event) throws IOException {
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "power":
+                        event.power = nextString(in);
+                        break;
+                    case "input":
+                        event.input = nextString(in);
+                        break;
+                    case "volume":
+                        event.volume = nextInteger(in);
+                        break;
+                    case "mute":
+                        event.mute = nextBoolean(in);
+                        break;
+                    case "status_updated":
+                        event.statusUpdated = nextBoolean(in);
+                        break;
+                    case "signal_info_updated":
+                        event.signalInfoUpdated = nextBoolean(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+        }
+    }
+
+    static class NetUSBEventAdapter extends ModelTypeAdapter<NetUSBEvent> {
+        NetUSBEventAdapter(TypeAdapter<NetUSBEvent> writer) {
+            super(writer);
+        }
+
+        @Override
+        public NetUSBEvent read(JsonReader in) throws IOException {
+            NetUSBEvent event = new NetUSBEvent();
+            readInto(in, event);
+            return event;
+        }
+
+        static void readInto(JsonReader in, NetUSBEvent event) throws IOException {
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "play_error":
+                        event.playError = nextInteger(in);
+                        break;
+                    case "multiple_play_errors":
+                        event.multiplePlayErrors = nextInteger(in);
+                        break;
+                    case "play_message":
+                        event.playMessage = nextString(in);
+                        break;
+                    case "account_updated":
+                        event.accountUpdated = nextBoolean(in);
+                        break;
+                    case "play_time":
+                        event.playTime = nextInteger(in);
+                        break;
+                    case "preset_info_updated":
+                        event.presetInfoUpdated = nextBoolean(in);
+                        break;
+                    case "recent_info_updated":
+                        event.recentInfoUpdated = nextBoolean(in);
+                        break;
+                    case "preset_control":
+                        event.presetControl = readPresetControl(event, in);
+                        break;
+                    case "play_info_updated":
+                        event.playInfoUpdated = nextBoolean(in);
+                        break;
+                    case "list_info_updated":
+                        event.listInfoUpdated = nextBoolean(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+        }
+
+        private static NetUSBEvent.PresetControl readPresetControl(NetUSBEvent event, JsonReader in)
+                throws IOException {
+            NetUSBEvent.PresetControl presetControl = event.new PresetControl();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "type":
+                        presetControl.type = nextString(in);
+                        break;
+                    case "num":
+                        presetControl.num = nextInteger(in);
+                        break;
+                    case "result":
+                        presetControl.result = nextString(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+            return presetControl;
+        }
+    }
+
+    static class SystemEventAdapter extends ModelTypeAdapter<SystemEvent> {
+        SystemEventAdapter(TypeAdapter<SystemEvent> writer) {
+            super(writer);
+        }
+
+        @Override
+        public SystemEvent read(JsonReader in) throws IOException {
+            SystemEvent event = new SystemEvent();
+            readInto(in, event);
+            return event;
+        }
+
+        static void readInto(JsonReader in, SystemEvent event) throws IOException {
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "bluetooth_info_updated":
+                        event.bluetoothInfoUpdated = nextBoolean(in);
+                        break;
+                    case "func_status_updated":
+                        event.funcStatusUpdated = nextBoolean(in);
+                        break;
+                    case "speaker_settings_updated":
+                        event.speakerSettingsUpdated = nextBoolean(in);
+                        break;
+                    case "name_text_updated":
+                        event.nameTextUpdated = nextBoolean(in);
+                        break;
+                    case "tag_updated":
+                        event.tagUpdated = nextBoolean(in);
+                        break;
+                    case "location_info_updated":
+                        event.locationInfoUpdated = nextBoolean(in);
+                        break;
+                    case "stereo_pair_info_updated":
+                        event.stereoPairInfoUpdated = nextBoolean(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+        }
+    }
+
+    static class IdEventAdapter extends ModelTypeAdapter<IdEvent> {
+        IdEventAdapter(TypeAdapter<IdEvent> writer) {
+            super(writer);
+        }
+
+        @Override
+        public IdEvent read(JsonReader in) throws IOException {
+            IdEvent event = new IdEvent();
+            readInto(in, event);
+            return event;
+        }
+
+        static void readInto(JsonReader in, IdEvent event) throws IOException {
+            in.beginObject();
+            while (in.hasNext()) {
+                if ("device_id".equals(in.nextName())) {
+                    event.deviceId = nextString(in);
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+        }
+    }
+
+    static class TunerEventAdapter extends ModelTypeAdapter<TunerEvent> {
+        TunerEventAdapter(TypeAdapter<TunerEvent> writer) {
+            super(writer);
+        }
+
+        @Override
+        public TunerEvent read(JsonReader in) throws IOException {
+            TunerEvent event = new TunerEvent();
+            readInto(in, event);
+            return event;
+        }
+
+        static void readInto(JsonReader in, TunerEvent event) throws IOException {
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "play_info_updated":
+                        event.playInfoUpdated = nextBoolean(in);
+                        break;
+                    case "preset_info_updated":
+                        event.presetInfoUpdated = nextBoolean(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+        }
+    }
+
+    static class CdEventAdapter extends ModelTypeAdapter<CdEvent> {
+        CdEventAdapter(TypeAdapter<CdEvent> writer) {
+            super(writer);
+        }
+
+        @Override
+        public CdEvent read(JsonReader in) throws IOException {
+            CdEvent event = new CdEvent();
+            readInto(in, event);
+            return event;
+        }
+
+        static void readInto(JsonReader in, CdEvent event) throws IOException {
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "device_status":
+                        event.deviceStatus = nextString(in);
+                        break;
+                    case "play_time":
+                        event.playTime = nextInteger(in);
+                        break;
+                    case "play_info_updated":
+                        event.playInfoUpdated = nextBoolean(in);
+                        break;
+                    default:
+                        in.skipValue();
+                        break;
+                }
+            }
+            in.endObject();
+        }
+    }
+
+    static class ClockEventAdapter extends ModelTypeAdapter<ClockEvent> {
+        ClockEventAdapter(TypeAdapter<ClockEvent> writer) {
+            super(writer);
+        }
+
+        @Override
+        public ClockEvent read(JsonReader in) throws IOException {
+            ClockEvent event = new ClockEvent();
+            readInto(in, event);
+            return event;
+        }
+
+        static void readInto(JsonReader in, ClockEvent event) throws IOException {
+            in.beginObject();
+            while (in.hasNext()) {
+                if ("settings_updated".equals(in.nextName())) {
+                    event.settingsUpdated = nextBoolean(in);
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+        }
+    }
+
+    static class DistEventAdapter extends ModelTypeAdapter<DistEvent> {
+        DistEventAdapter(TypeAdapter<DistEvent> writer) {
+            super(writer);
+        }
+
+        @Override
+        public DistEvent read(JsonReader in) throws IOException {
+            DistEvent event = new DistEvent();
+            readInto(in, event);
+            return event;
+        }
+
+        static void readInto(JsonReader in, DistEvent event) throws IOException {
+            in.beginObject();
+            while (in.hasNext()) {
+                if ("dist_info_updated".equals(in.nextName())) {
+                    event.distInfoUpdated = nextBoolean(in);
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+        }
+    }
+}
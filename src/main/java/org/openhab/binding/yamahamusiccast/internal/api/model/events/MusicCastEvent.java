@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal.api.model.events;
+
+import org.openhab.binding.yamahamusiccast.YamahaMusicCastBindingConstants.Zone;
+
+/**
+ * One UDP event of a device, with a section per part of the device. Only the sections present in the last decoded
+ * event are returned, the other getters return null. The instance is reused for every event of the device by the
+ * {@link MusicCastEventDecoder}, so it must not be kept once the event is handled.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+public class MusicCastEvent {
+
+    protected String deviceId;
+    protected final SystemEvent system = new SystemEvent();
+    protected final NetUSBEvent netusb = new NetUSBEvent();
+    protected final TunerEvent tuner = new TunerEvent();
+    protected final CdEvent cd = new CdEvent();
+    protected final ClockEvent clock = new ClockEvent();
+    protected final DistEvent dist = new DistEvent();
+    protected final ZoneEvent[] zones = new ZoneEvent[Zone.values().length];
+
+    protected boolean hasSystem;
+    protected boolean hasNetusb;
+    protected boolean hasTuner;
+    protected boolean hasCd;
+    protected boolean hasClock;
+    protected boolean hasDist;
+    protected final boolean[] hasZone = new boolean[Zone.values().length];
+
+    public MusicCastEvent() {
+        for (int i = 0; i < zones.length; i++) {
+            zones[i] = new ZoneEvent();
+        }
+    }
+
+    /*
+     * Returns the device ID, same value as in /system/getDeviceInfo
+     */
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public SystemEvent getSystem() {
+        return hasSystem ? system : null;
+    }
+
+    public NetUSBEvent getNetUSB() {
+        return hasNetusb ? netusb : null;
+    }
+
+    public TunerEvent getTuner() {
+        return hasTuner ? tuner : null;
+    }
+
+    public CdEvent getCd() {
+        return hasCd ? cd : null;
+    }
+
+    public ClockEvent getClock() {
+        return hasClock ? clock : null;
+    }
+
+    public DistEvent getDist() {
+        return hasDist ? dist : null;
+    }
+
+    public ZoneEvent getZone(Zone zone) {
+        return hasZone[zone.ordinal()] ? zones[zone.ordinal()] : null;
+    }
+
+    /*
+     * Clears the sections before the next event is decoded
+     */
+    void reset() {
+        deviceId = null;
+        if (hasSystem) {
+            system.reset();
+            hasSystem = false;
+        }
+        if (hasNetusb) {
+            netusb.reset();
+            hasNetusb = false;
+        }
+        if (hasTuner) {
+            tuner.reset();
+            hasTuner = false;
+        }
+        if (hasCd) {
+            cd.reset();
+            hasCd = false;
+        }
+        if (hasClock) {
+            clock.reset();
+            hasClock = false;
+        }
+        if (hasDist) {
+            dist.reset();
+            hasDist = false;
+        }
+        for (int i = 0; i < zones.length; i++) {
+            if (hasZone[i]) {
+                zones[i].reset();
+                hasZone[i] = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal.api.model.events;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+
+import org.openhab.binding.yamahamusiccast.YamahaMusicCastBindingConstants.Zone;
+import org.openhab.binding.yamahamusiccast.internal.api.Utf8Reader;
+import org.openhab.binding.yamahamusiccast.internal.api.model.events.EventTypeAdapterFactory.CdEventAdapter;
+import org.openhab.binding.yamahamusiccast.internal.api.model.events.EventTypeAdapterFactory.ClockEventAdapter;
+import org.openhab.binding.yamahamusiccast.internal.api.model.events.EventTypeAdapterFactory.DistEventAdapter;
+import org.openhab.binding.yamahamusiccast.internal.api.model.events.EventTypeAdapterFactory.NetUSBEventAdapter;
+import org.openhab.binding.yamahamusiccast.internal.api.model.events.EventTypeAdapterFactory.SystemEventAdapter;
+import org.openhab.binding.yamahamusiccast.internal.api.model.events.EventTypeAdapterFactory.TunerEventAdapter;
+import org.openhab.binding.yamahamusiccast.internal.api.model.events.EventTypeAdapterFactory.ZoneEventAdapter;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * The {@link MusicCastEventDecoder} reads a UDP event in a single pass, straight into the sections of one
+ * {@link MusicCastEvent}. The unknown sections and fields are skipped without being built. The decoder and its event
+ * are reused for every event of a device, so it must only be used by one thread at a time.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+public class MusicCastEventDecoder {
+
+    private final MusicCastEvent event = new MusicCastEvent();
+
+    /**
+     * Decodes an event from the UTF-8 content of a UDP packet, without building a {@link String} first.
+     *
+     * @param content the content of the UDP packet, consumed from its position to its limit
+     * @return the decoded event, valid until the next call
+     * @throws JsonParseException if the content is not a valid event
+     */
+    public MusicCastEvent decode(ByteBuffer content) {
+        return decode(new Utf8Reader(content));
+    }
+
+    /**
+     * Decodes an event.
+     *
+     * @param message the content of the UDP packet
+     * @return the decoded event, valid until the next call
+     * @throws JsonParseException if the message is not a valid event
+     */
+    public MusicCastEvent decode(String message) {
+        return decode(new StringReader(message));
+    }
+
+    private MusicCastEvent decode(Reader message) {
+        event.reset();
+        try (JsonReader in = new JsonReader(message)) {
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                switch (name) {
+                    case "device_id":
+                        if (in.peek() == JsonToken.STRING) {
+                            event.deviceId = in.nextString();
+                        } else {
+                            in.skipValue();
+                        }
+                        break;
+                    // the section is flagged first, so it is cleared by the next reset even if it is invalid
+                    case "system":
+                        event.hasSystem = true;
+                        SystemEventAdapter.readInto(in, event.system);
+                        break;
+                    case "netusb":
+                        event.hasNetusb = true;
+                        NetUSBEventAdapter.readInto(in, event.netusb);
+                        break;
+                    case "tuner":
+                        event.hasTuner = true;
+                        TunerEventAdapter.readInto(in, event.tuner);
+                        break;
+                    case "cd":
+                        event.hasCd = true;
+                        CdEventAdapter.readInto(in, event.cd);
+                        break;
+                    case "clock":
+                        event.hasClock = true;
+                        ClockEventAdapter.readInto(in, event.clock);
+                        break;
+                    case "dist":
+                        event.hasDist = true;
+                        DistEventAdapter.readInto(in, event.dist);
+                        break;
+                    default:
+                        Zone zone = Zone.fromId(name);
+                        if (zone != null) {
+                            event.hasZone[zone.ordinal()] = true;
+                            ZoneEventAdapter.readInto(in, event.zones[zone.ordinal()]);
+                        } else {
+                            in.skipValue();
+                        }
+                        break;
+                }
+            }
+            in.endObject();
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            throw new JsonParseException("Invalid event: " + e.getMessage(), e);
+        }
+        return event;
+    }
+}
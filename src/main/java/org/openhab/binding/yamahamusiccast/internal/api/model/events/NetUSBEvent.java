@@ -210,4 +210,20 @@ public class NetUSBEvent {
     public Boolean getListInfoUpdated() {
         return listInfoUpdated;
     }
+
+    /*
+     * Clears the fields, so the instance can be filled again by the next event
+     */
+    void reset() {
+        playError = null;
+        multiplePlayErrors = null;
+        playMessage = null;
+        accountUpdated = null;
+        playTime = null;
+        presetInfoUpdated = null;
+        recentInfoUpdated = null;
+        presetControl = null;
+        playInfoUpdated = null;
+        listInfoUpdated = null;
+    }
 }
@@ -79,4 +79,17 @@ public class SystemEvent {
     public Boolean getStereoPairInfoUpdated() {
         return stereoPairInfoUpdated;
     }
+
+    /*
+     * Clears the fields, so the instance can be filled again by the next event
+     */
+    void reset() {
+        bluetoothInfoUpdated = null;
+        funcStatusUpdated = null;
+        speakerSettingsUpdated = null;
+        nameTextUpdated = null;
+        tagUpdated = null;
+        locationInfoUpdated = null;
+        stereoPairInfoUpdated = null;
+    }
 }
@@ -37,4 +37,12 @@ public class TunerEvent {
     public Boolean getPresetInfoUpdated() {
         return presetInfoUpdated;
     }
+
+    /*
+     * Clears the fields, so the instance can be filled again by the next event
+     */
+    void reset() {
+        playInfoUpdated = null;
+        presetInfoUpdated = null;
+    }
 }
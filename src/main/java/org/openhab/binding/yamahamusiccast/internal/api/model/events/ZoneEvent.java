@@ -70,4 +70,16 @@ public class ZoneEvent {
     public Boolean getSignalInfoUpdated() {
         return signalInfoUpdated;
     }
+
+    /*
+     * Clears the fields, so the instance can be filled again by the next event
+     */
+    void reset() {
+        power = null;
+        input = null;
+        volume = null;
+        mute = null;
+        statusUpdated = null;
+        signalInfoUpdated = null;
+    }
 }
@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal.event;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link EventDispatchQueue} handles the events of one device, one after the other and in the order they were
+ * received, on an executor shared by all the devices. The receiver threads only add the events to the queue, so a
+ * slow device never delays the events of the others.
+ *
+ * The queue is bounded. An event only carries what changed on the device, e.g. the power in one event and the volume in
+ * the next, or a flag telling that the status must be fetched again, so no event can be dropped on its own. When the
+ * queue is full, the events waiting are discarded as a whole and replaced by the overflow handler, which fetches the
+ * whole state of the device again, before the new event. A device is handed at most {@link #BATCH_SIZE} events in a
+ * row before its turn is given back to the executor, so a busy device does not starve the others.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+@NonNullByDefault
+public class EventDispatchQueue {
+
+    private static final int BATCH_SIZE = 16;
+
+    private final Logger logger = LoggerFactory.getLogger(EventDispatchQueue.class);
+
+    private final Executor executor;
+    private final int capacity;
+    private final Runnable overflowHandler;
+    private final Deque<Event> queue = new ArrayDeque<>();
+
+    private boolean running;
+    private boolean stopped;
+    private int maxQueueDepth;
+    private long handled;
+    private long dropped;
+    private long overflows;
+    private long totalLatencyMillis;
+    private long maxLatencyMillis;
+
+    /**
+     * @param executor the executor shared by the devices
+     * @param capacity the maximum number of events waiting to be handled
+     * @param overflowHandler fetches the whole state of the device, in place of the events discarded on an overflow
+     */
+    public EventDispatchQueue(Executor executor, int capacity, Runnable overflowHandler) {
+        this.executor = executor;
+        // room for the overflow handler and the new event
+        this.capacity = Math.max(2, capacity);
+        this.overflowHandler = overflowHandler;
+    }
+
+    /**
+     * Queues an event.
+     *
+     * @param handler handles the event
+     */
+    public void submit(Runnable handler) {
+        synchronized (this) {
+            if (stopped) {
+                return;
+            }
+            if (queue.size() >= capacity) {
+                dropped += queue.size();
+                overflows++;
+                queue.clear();
+                queue.add(new Event(overflowHandler));
+                logger.debug("Event queue full, replaced the waiting events by a refresh ({} events so far)", dropped);
+            }
+            queue.add(new Event(handler));
+            maxQueueDepth = Math.max(maxQueueDepth, queue.size());
+            if (running) {
+                return;
+            }
+            running = true;
+        }
+        schedule();
+    }
+
+    /**
+     * Stops the queue, the events still waiting are discarded.
+     */
+    public synchronized void stop() {
+        stopped = true;
+        queue.clear();
+    }
+
+    private void schedule() {
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Event executor rejected the events: {}", e.getMessage());
+            synchronized (this) {
+                running = false;
+            }
+        }
+    }
+
+    private void drain() {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            Event event;
+            synchronized (this) {
+                event = queue.poll();
+                if (event == null) {
+                    running = false;
+                    return;
+                }
+            }
+            try {
+                event.handler.run();
+            } catch (RuntimeException e) {
+                logger.warn("Failed to handle event: {}", e.getMessage(), e);
+            }
+            long latency = System.currentTimeMillis() - event.receivedAt;
+            synchronized (this) {
+                handled++;
+                totalLatencyMillis += latency;
+                maxLatencyMillis = Math.max(maxLatencyMillis, latency);
+            }
+        }
+        // still running, give the other devices a turn
+        schedule();
+    }
+
+    /**
+     * @return the number of events waiting to be handled
+     */
+    public synchronized int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * @return the highest number of events that were waiting at the same time
+     */
+    public synchronized int getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    /**
+     * @return the number of events handled
+     */
+    public synchronized long getHandled() {
+        return handled;
+    }
+
+    /**
+     * @return the number of events discarded because the queue was full
+     */
+    public synchronized long getDropped() {
+        return dropped;
+    }
+
+    /**
+     * @return the number of times the queue was full and the state of the device was fetched again
+     */
+    public synchronized long getOverflows() {
+        return overflows;
+    }
+
+    /**
+     * @return the average time from the reception of an event to the end of its handling, in milliseconds
+     */
+    public synchronized long getAverageLatencyMillis() {
+        return handled == 0 ? 0 : totalLatencyMillis / handled;
+    }
+
+    /**
+     * @return the longest time from the reception of an event to the end of its handling, in milliseconds
+     */
+    public synchronized long getMaxLatencyMillis() {
+        return maxLatencyMillis;
+    }
+
+    private static class Event {
+        final Runnable handler;
+        final long receivedAt = System.currentTimeMillis();
+
+        Event(Runnable handler) {
+            this.handler = handler;
+        }
+    }
+}
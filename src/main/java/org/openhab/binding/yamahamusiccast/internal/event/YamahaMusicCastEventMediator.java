@@ -12,7 +12,8 @@
  */
 package org.openhab.binding.yamahamusiccast.internal.event;
 
-import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
 
 import org.openhab.binding.yamahamusiccast.handler.YamahaMusicCastHandler;
 import org.openhab.core.thing.Thing;
@@ -27,12 +28,13 @@ import org.openhab.core.thing.Thing;
 public interface YamahaMusicCastEventMediator {
 
     /**
-     * This method is called by the {@link YamahaMusicCastUpdateReceiverRunnable}, when one new message has been
-     * received.
+     * This method is called by the {@link YamahaMusicCastEventReceiver}, when one new message has been
+     * received. It may be called by several receiver threads at the same time.
      *
-     * @param receivedMessage the {@link SilvercrestWifiSocketResponse} message.
+     * @param sender the address of the device which sent the message.
+     * @param content the content of the message, only valid until the method returns.
      */
-    void processReceivedPacket(final DatagramPacket packet);
+    void processReceivedPacket(final InetAddress sender, final ByteBuffer content);
 
     /**
      * Registers a new {@link Thing} and the corresponding {@link SilvercrestWifiSocketHandler}.
@@ -49,6 +51,13 @@ public interface YamahaMusicCastEventMediator {
      */
     void unregisterYamahaMusicCastHandlerByThing(final Thing thing);
 
+    /**
+     * Resolves the host of a registered {@link YamahaMusicCastHandler} again, after its configuration changed.
+     *
+     * @param handler the {@link YamahaMusicCastHandler}.
+     */
+    void updateYamahaMusicCastHandlerHost(final YamahaMusicCastHandler handler);
+
     /**
      * Returns all the {@link Thing} registered.
      *
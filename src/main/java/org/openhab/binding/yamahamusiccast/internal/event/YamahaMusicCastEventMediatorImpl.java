@@ -12,13 +12,29 @@
  */
 package org.openhab.binding.yamahamusiccast.internal.event;
 
-import java.net.DatagramPacket;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.NetworkInterface;
 import java.net.SocketException;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.openhab.binding.yamahamusiccast.YamahaMusicCastBindingConstants;
 import org.openhab.binding.yamahamusiccast.handler.YamahaMusicCastHandler;
+import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.thing.Thing;
 import org.osgi.service.component.ComponentContext;
 import org.osgi.service.component.annotations.Activate;
@@ -31,18 +47,59 @@ import org.slf4j.LoggerFactory;
  * The {@link YamahaMusicCastEventMediatorImpl} is responsible for receiving all the UDP packets and route correctly to
  * each handler.
  *
+ * The handlers are found through an index by address, so the lookup cost does not depend on the number of devices.
+ * The host of a handler, which may be a hostname, is resolved on a background thread when the handler is registered
+ * or its host changes, again every {@link #ADDRESS_TTL_MILLIS}, and when a packet comes from an unknown address, at
+ * most once per {@link #MISS_RESOLVE_INTERVAL_MILLIS}. An unknown address which already caused a resolution is then
+ * ignored until the next periodic one, so a sender which is not a registered device does not keep the hosts of all
+ * the devices being resolved again. The index is replaced as a whole when it changes, so the receiver threads only
+ * read it, without locking and without waiting for a name resolution.
+ *
  * @author Jaime Vaz - Initial contribution
  * @author Hector Rodriguez - Adapted for Musiccast binding
  */
-@Component(service = YamahaMusicCastEventMediator.class, immediate = true)
+@Component(service = YamahaMusicCastEventMediator.class, immediate = true, configurationPid = "binding.yamahamusiccast")
 public class YamahaMusicCastEventMediatorImpl implements YamahaMusicCastEventMediator {
 
+    private static final String CONFIG_RECEIVER_THREADS = "receiverThreads";
+    private static final String CONFIG_INTERFACES = "interfaces";
+    private static final int MAX_RECEIVER_THREADS = 16;
+    private static final long RECEIVER_STOP_TIMEOUT_MILLIS = 2000;
+    private static final long ADDRESS_TTL_MILLIS = 300000;
+    private static final long MISS_RESOLVE_INTERVAL_MILLIS = 10000;
+    private static final int MAX_UNKNOWN_SENDERS = 256;
+
     private final Logger logger = LoggerFactory.getLogger(YamahaMusicCastEventMediatorImpl.class);
 
+    // guarded by this
     private final Map<Thing, YamahaMusicCastHandler> handlersRegistredByThing = new HashMap<>();
+    // guarded by this, the last addresses resolved for each handler
+    private final Map<YamahaMusicCastHandler, List<InetAddress>> addressesByHandler = new HashMap<>();
+
+    // copy-on-write, read by the receivers without locking
+    private volatile Map<InetAddress, YamahaMusicCastHandler> handlersByAddress = Collections.emptyMap();
+    private final AtomicLong lastMissResolvedAt = new AtomicLong();
+    // the unknown senders which caused a resolution, and when
+    private final Map<InetAddress, Long> unknownSenders = new ConcurrentHashMap<>();
+    private final long missResolveIntervalMillis;
 
-    private YamahaMusicCastEventReceiver receiver;
-    private Thread receiverThread;
+    private final ScheduledExecutorService resolver = ThreadPoolManager
+            .getScheduledPool(YamahaMusicCastBindingConstants.RESOLVER_THREADPOOL_NAME);
+    private ScheduledFuture<?> resolveJob;
+
+    private final List<YamahaMusicCastEventReceiver> receivers = new ArrayList<>();
+    private final List<Thread> receiverThreads = new ArrayList<>();
+
+    public YamahaMusicCastEventMediatorImpl() {
+        this(MISS_RESOLVE_INTERVAL_MILLIS);
+    }
+
+    /**
+     * @param missResolveIntervalMillis the minimum delay between two resolutions caused by unknown senders
+     */
+    YamahaMusicCastEventMediatorImpl(long missResolveIntervalMillis) {
+        this.missResolveIntervalMillis = missResolveIntervalMillis;
+    }
 
     /**
      * Called at the service activation.
@@ -52,7 +109,22 @@ public class YamahaMusicCastEventMediatorImpl implements YamahaMusicCastEventMed
     @Activate
     protected void activate(final ComponentContext componentContext) {
         logger.debug("Mediator has been activated by OSGI.");
-        this.initYamahaMusicCastEventReceiver();
+        Object receiverThreads = componentContext.getProperties().get(CONFIG_RECEIVER_THREADS);
+        int threads = 1;
+        if (receiverThreads != null) {
+            try {
+                threads = Integer.parseInt(receiverThreads.toString().trim());
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid number of receiver threads: {}", receiverThreads);
+            }
+        }
+        Object interfaces = componentContext.getProperties().get(CONFIG_INTERFACES);
+        List<InetAddress> bindAddresses = interfaces != null ? resolveBindAddresses(interfaces.toString())
+                : Collections.emptyList();
+        this.initYamahaMusicCastEventReceivers(Math.max(1, Math.min(MAX_RECEIVER_THREADS, threads)), bindAddresses);
+        // a device may get a new address from DHCP
+        resolveJob = resolver.scheduleWithFixedDelay(this::resolveAllAddresses, ADDRESS_TTL_MILLIS, ADDRESS_TTL_MILLIS,
+                TimeUnit.MILLISECONDS);
     }
 
     /**
@@ -62,8 +134,28 @@ public class YamahaMusicCastEventMediatorImpl implements YamahaMusicCastEventMed
      */
     @Deactivate
     protected void deactivate(final ComponentContext componentContext) {
-        if (this.receiver != null) {
-            this.receiver.shutdown();
+        if (resolveJob != null) {
+            resolveJob.cancel(true);
+            resolveJob = null;
+        }
+        synchronized (receivers) {
+            for (YamahaMusicCastEventReceiver receiver : receivers) {
+                receiver.shutdown();
+            }
+            receivers.clear();
+            // the receivers stop as soon as they are woken up
+            for (Thread receiverThread : receiverThreads) {
+                try {
+                    receiverThread.join(RECEIVER_STOP_TIMEOUT_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                if (receiverThread.isAlive()) {
+                    logger.warn("Receiver thread {} did not stop", receiverThread.getName());
+                }
+            }
+            receiverThreads.clear();
         }
     }
 
@@ -72,18 +164,20 @@ public class YamahaMusicCastEventMediatorImpl implements YamahaMusicCastEventMed
      * received.
      */
     @Override
-    public void processReceivedPacket(final DatagramPacket packet) {
-        logger.debug("Received packet from: {} ", packet.getAddress().getHostAddress());// ,
-        // receivedMessage.getType());
+    public void processReceivedPacket(final InetAddress sender, final ByteBuffer content) {
+        logger.debug("Received packet from: {} ", sender);
 
-        String message = new String(packet.getData(), 0, packet.getLength());
-        YamahaMusicCastHandler handler = this.getHandlerRegistredByHost(packet.getAddress().getHostAddress());
+        YamahaMusicCastHandler handler = this.getHandlerRegistredByAddress(sender);
 
         if (handler != null) {
+            // the buffer is reused by the receiver, only the bytes are copied, the event thread decodes them once
+            ByteBuffer message = ByteBuffer.allocate(content.remaining()).put(content).flip();
+            if (logger.isTraceEnabled()) {
+                logger.trace("Received message: {}", StandardCharsets.UTF_8.decode(message.duplicate()));
+            }
             // deliver message to handler.
             handler.newReceivedResponseMessage(message);
-            logger.debug("Received message delivered with success to handler of host {}",
-                    packet.getAddress().getHostAddress());
+            logger.debug("Received message delivered with success to handler of host {}", handler.getHost());
         } /*
            * else {
            * logger.debug("There is no handler registered for mac address:{}", receivedMessage.getMacAddress());
@@ -101,8 +195,23 @@ public class YamahaMusicCastEventMediatorImpl implements YamahaMusicCastEventMed
      * @param handler the {@link YamahaMusicCastHandler}.
      */
     @Override
-    public void registerThingAndYamahaMusicCastHandler(final Thing thing, final YamahaMusicCastHandler handler) {
-        this.handlersRegistredByThing.put(thing, handler);
+    public synchronized void registerThingAndYamahaMusicCastHandler(final Thing thing,
+            final YamahaMusicCastHandler handler) {
+        YamahaMusicCastHandler previous = this.handlersRegistredByThing.put(thing, handler);
+        if (previous != null && previous != handler) {
+            removeAddresses(previous);
+        }
+        resolveAddressesLater(handler);
+    }
+
+    /**
+     * Resolves the host of a registered handler again, after its configuration changed.
+     *
+     * @param handler the {@link YamahaMusicCastHandler}.
+     */
+    @Override
+    public void updateYamahaMusicCastHandlerHost(final YamahaMusicCastHandler handler) {
+        resolveAddressesLater(handler);
     }
 
     /**
@@ -111,51 +220,176 @@ public class YamahaMusicCastEventMediatorImpl implements YamahaMusicCastEventMed
      * @param thing the {@link Thing}.
      */
     @Override
-    public void unregisterYamahaMusicCastHandlerByThing(final Thing thing) {
-        YamahaMusicCastHandler handler = this.handlersRegistredByThing.get(thing);
+    public synchronized void unregisterYamahaMusicCastHandlerByThing(final Thing thing) {
+        YamahaMusicCastHandler handler = this.handlersRegistredByThing.remove(thing);
         if (handler != null) {
-            this.handlersRegistredByThing.remove(thing);
+            removeAddresses(handler);
         }
     }
 
     /**
-     * Utilitary method to get the registered thing handler in mediator by the host address.
+     * Utilitary method to get the registered thing handler in mediator by the address of the device. It only reads the
+     * index, an unknown address is resolved on the background thread.
      *
-     * @param macAddress the host address of the thing of the handler.
+     * @param address the address the packet was sent from.
      * @return {@link YamahaMusicCastHandler} if found.
      */
-    private YamahaMusicCastHandler getHandlerRegistredByHost(final String host) {
-        YamahaMusicCastHandler searchedHandler = null;
-        logger.debug("Looking for handler with IP address: {} ", host);
-        for (YamahaMusicCastHandler handler : this.handlersRegistredByThing.values()) {
-            logger.debug("Found handler with IP address: {} ", handler.getHost());
-            if (host.equals(handler.getHost())) {
-                searchedHandler = handler;
-                // don't spend more computation. Found the handler.
-                break;
+    YamahaMusicCastHandler getHandlerRegistredByAddress(final InetAddress address) {
+        YamahaMusicCastHandler handler = this.handlersByAddress.get(address);
+        if (handler == null) {
+            // a device may have got a new address
+            long now = System.currentTimeMillis();
+            Long missedAt = this.unknownSenders.get(address);
+            if (missedAt != null && now - missedAt < ADDRESS_TTL_MILLIS) {
+                // already looked for, the periodic resolution finds a later change
+                return null;
+            }
+            long last = this.lastMissResolvedAt.get();
+            if (now - last >= this.missResolveIntervalMillis && this.lastMissResolvedAt.compareAndSet(last, now)) {
+                if (this.unknownSenders.size() >= MAX_UNKNOWN_SENDERS) {
+                    this.unknownSenders.clear();
+                }
+                this.unknownSenders.put(address, now);
+                resolver.execute(this::resolveAllAddresses);
             }
         }
-        return searchedHandler;
+        return handler;
+    }
+
+    private void resolveAddressesLater(final YamahaMusicCastHandler handler) {
+        resolver.execute(() -> resolveAddresses(handler));
     }
 
     /**
-     * Inits the mediator {@link YamahaMusicCastEventReceiver} thread. This thread is responsible to receive all
-     * packets from musiccast devices, and redirect the messages to mediator.
+     * Resolves the hosts of all the registered handlers again.
      */
-    private void initYamahaMusicCastEventReceiver() {
-        // try with handler port if is null
-        if ((this.receiver == null) || ((this.receiverThread != null)
-                && (this.receiverThread.isInterrupted() || !this.receiverThread.isAlive()))) {
+    private void resolveAllAddresses() {
+        List<YamahaMusicCastHandler> handlers;
+        synchronized (this) {
+            handlers = new ArrayList<>(this.handlersRegistredByThing.values());
+        }
+        for (YamahaMusicCastHandler handler : handlers) {
+            resolveAddresses(handler);
+        }
+    }
+
+    /**
+     * Resolves the host of a handler, without holding the lock, and updates the index with its addresses.
+     *
+     * @param handler the {@link YamahaMusicCastHandler}.
+     */
+    private void resolveAddresses(final YamahaMusicCastHandler handler) {
+        String host = handler.getHost();
+        if (host == null || host.isEmpty()) {
+            return;
+        }
+        List<InetAddress> addresses;
+        try {
+            addresses = Arrays.asList(InetAddress.getAllByName(host));
+        } catch (UnknownHostException e) {
+            // the previous addresses are kept, the host may only be unresolvable for a while
+            logger.debug("Cannot resolve host {}: {}", host, e.getMessage());
+            return;
+        }
+        synchronized (this) {
+            // the handler may have been unregistered, or got another host, meanwhile
+            if (!this.handlersRegistredByThing.containsValue(handler) || !host.equals(handler.getHost())) {
+                return;
+            }
+            if (addresses.equals(this.addressesByHandler.put(handler, addresses))) {
+                return;
+            }
+            logger.debug("Resolved host {} to {}", host, addresses);
+            rebuildIndex();
+        }
+    }
+
+    private synchronized void removeAddresses(final YamahaMusicCastHandler handler) {
+        if (this.addressesByHandler.remove(handler) != null) {
+            rebuildIndex();
+        }
+    }
+
+    /**
+     * Replaces the index by address of the handlers, must be called while holding the lock.
+     */
+    private void rebuildIndex() {
+        Map<InetAddress, YamahaMusicCastHandler> index = new HashMap<>();
+        for (Map.Entry<YamahaMusicCastHandler, List<InetAddress>> entry : this.addressesByHandler.entrySet()) {
+            for (InetAddress address : entry.getValue()) {
+                index.put(address, entry.getKey());
+            }
+        }
+        this.handlersByAddress = Collections.unmodifiableMap(index);
+    }
+
+    /**
+     * Inits the mediator {@link YamahaMusicCastEventReceiver} threads. These threads are responsible to receive all
+     * packets from musiccast devices, and redirect the messages to mediator. With more than one thread the port is
+     * shared with SO_REUSEPORT.
+     *
+     * @param threads the number of receiver threads
+     * @param bindAddresses the local addresses to listen on, all the addresses if empty
+     */
+    private void initYamahaMusicCastEventReceivers(int threads, List<InetAddress> bindAddresses) {
+        boolean reusePort = threads > 1;
+        if (reusePort && !YamahaMusicCastEventReceiver.isReusePortSupported()) {
+            logger.warn("SO_REUSEPORT is not supported on this platform, starting a single receiver thread");
+            threads = 1;
+            reusePort = false;
+        }
+        synchronized (receivers) {
+            for (int i = 0; i < threads; i++) {
+                try {
+                    YamahaMusicCastEventReceiver receiver = new YamahaMusicCastEventReceiver(this,
+                            YamahaMusicCastBindingConstants.EVENTS_DEFAULT_PORT, bindAddresses, reusePort);
+                    Thread receiverThread = new Thread(receiver, "OH-binding-yamahamusiccast-receiver-" + i);
+                    receiverThread.setDaemon(true);
+                    receiverThread.start();
+                    receivers.add(receiver);
+                    receiverThreads.add(receiverThread);
+                    logger.debug("Invoked the start of receiver thread {}.", i);
+                } catch (IOException e) {
+                    logger.warn("Cannot listen for events on port {}: {}",
+                            YamahaMusicCastBindingConstants.EVENTS_DEFAULT_PORT, e.getMessage());
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Resolves the interfaces the receivers listen on. Each entry is either the name of a network interface, which
+     * stands for all its addresses, or a local address.
+     *
+     * @param interfaces the comma separated list of interfaces
+     * @return the local addresses, empty to listen on all the addresses
+     */
+    private List<InetAddress> resolveBindAddresses(String interfaces) {
+        List<InetAddress> addresses = new ArrayList<>();
+        for (String entry : interfaces.split(",")) {
+            String name = entry.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
             try {
-                this.receiver = new YamahaMusicCastEventReceiver(this,
-                        YamahaMusicCastBindingConstants.EVENTS_DEFAULT_PORT);
-                this.receiverThread = new Thread(this.receiver);
-                this.receiverThread.start();
-                logger.debug("Invoked the start of receiver thread.");
-            } catch (SocketException e) {
-                logger.debug("Cannot start the socket with default port...");
+                NetworkInterface networkInterface = NetworkInterface.getByName(name);
+                if (networkInterface != null) {
+                    Enumeration<InetAddress> interfaceAddresses = networkInterface.getInetAddresses();
+                    while (interfaceAddresses.hasMoreElements()) {
+                        addresses.add(interfaceAddresses.nextElement());
+                    }
+                } else {
+                    addresses.add(InetAddress.getByName(name));
+                }
+            } catch (SocketException | UnknownHostException e) {
+                logger.warn("Ignoring unknown interface {}: {}", name, e.getMessage());
             }
         }
+        if (addresses.isEmpty() && !interfaces.trim().isEmpty()) {
+            logger.warn("None of the interfaces {} is available, listening on all the addresses", interfaces);
+        }
+        return addresses;
     }
 
     /**
@@ -13,137 +13,366 @@
 package org.openhab.binding.yamahamusiccast.internal.event;
 
 import java.io.IOException;
-import java.net.DatagramPacket;
-import java.net.DatagramSocket;
-import java.net.SocketException;
-import java.net.SocketTimeoutException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * This Thread is responsible to receive all Wifi Socket messages and redirect them to
+ * This Thread is responsible to receive all MusicCast event datagrams and redirect them to
  * {@link YamahaMusicCastEventMediator}.
  *
+ * One non-blocking channel is bound per local address, all registered on the same selector, so a single thread
+ * serves every interface and {@link #shutdown()} wakes it up immediately. The datagrams are received in one direct
+ * buffer, allocated once and as large as the socket receive buffer allows, and handed to the mediator without copy.
+ * Several receivers can share the port with SO_REUSEPORT, the kernel then spreads the datagrams across them.
+ *
+ * A channel which fails is closed and bound again after a delay, doubled on each failure, while the other channels
+ * keep receiving. If the selector itself fails, it is closed with all the channels and created again with the same
+ * backoff, so the receiver only stops on {@link #shutdown()}.
+ *
  * @author Jaime Vaz - Initial contribution
  * @author Hector Rodriguez - Adapted for Musiccast binding
  *
  */
 public class YamahaMusicCastEventReceiver implements Runnable {
 
-    private static final int TIMEOUT_TO_DATAGRAM_RECEPTION = 10000;
+    // largest UDP payload over IPv4
+    private static final int MAX_DATAGRAM_SIZE = 65507;
+
+    private static final long INITIAL_REOPEN_DELAY_MILLIS = 1000;
+    private static final long MAX_REOPEN_DELAY_MILLIS = 60000;
 
     private final Logger logger = LoggerFactory.getLogger(YamahaMusicCastEventReceiver.class);
 
-    private DatagramSocket datagramSocket;
     private final YamahaMusicCastEventMediator mediator;
-    // private final WifiSocketPacketConverter packetConverter = new WifiSocketPacketConverter();
+    private final int listeningPort;
+    private final boolean reusePort;
+    private final ByteBuffer buffer;
+    // replaced by the receiver thread when it fails
+    private volatile Selector selector;
+
+    // only used by the receiver thread once it is started
+    private final List<Endpoint> endpoints = new ArrayList<>();
+    private final List<Endpoint> closedEndpoints = new ArrayList<>();
+    private long selectorDelay = INITIAL_REOPEN_DELAY_MILLIS;
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong truncated = new AtomicLong();
+    private final AtomicLong reopened = new AtomicLong();
 
-    private boolean shutdown;
-    private int listeningPort;
+    private volatile boolean shutdown;
 
     /**
      * Constructor of the receiver runnable thread.
      *
      * @param mediator the {@link YamahaMusicCastEventMediator}
      * @param listeningPort the listening UDP port
-     * @throws SocketException is some problem occurs opening the socket.
+     * @param bindAddresses the local addresses to listen on, all the addresses if empty
+     * @param reusePort true to bind with SO_REUSEPORT, so other receivers can listen on the same port
+     * @throws IOException is some problem occurs opening the sockets.
      */
-    public YamahaMusicCastEventReceiver(final YamahaMusicCastEventMediator mediator, final int listeningPort)
-            throws SocketException {
-        logger.debug("Starting Update Receiver Runnable...");
-        // Create a socket to listen on the port.
-        this.listeningPort = listeningPort;
+    public YamahaMusicCastEventReceiver(final YamahaMusicCastEventMediator mediator, final int listeningPort,
+            final List<InetAddress> bindAddresses, final boolean reusePort) throws IOException {
         this.mediator = mediator;
+        this.listeningPort = listeningPort;
+        this.reusePort = reusePort;
+        this.selector = Selector.open();
 
-        logger.debug("Opening socket and start listening UDP port: {}", listeningPort);
-        this.datagramSocket = new DatagramSocket(listeningPort);
-        this.datagramSocket.setSoTimeout(TIMEOUT_TO_DATAGRAM_RECEPTION);
-        logger.debug("Update Receiver Runnable and socket started with success...");
+        int receiveBufferSize = 0;
+        try {
+            if (bindAddresses.isEmpty()) {
+                endpoints.add(new Endpoint(new InetSocketAddress(listeningPort)));
+            } else {
+                for (InetAddress address : bindAddresses) {
+                    endpoints.add(new Endpoint(new InetSocketAddress(address, listeningPort)));
+                }
+            }
+            for (Endpoint endpoint : endpoints) {
+                receiveBufferSize = Math.max(receiveBufferSize, open(endpoint));
+            }
+        } catch (IOException | RuntimeException e) {
+            closeAll();
+            throw e;
+        }
+        this.buffer = ByteBuffer.allocateDirect(Math.min(MAX_DATAGRAM_SIZE, receiveBufferSize));
+        logger.debug("Update Receiver Runnable and channels started with success, buffer of {} bytes",
+                buffer.capacity());
+    }
 
-        this.shutdown = false;
+    /**
+     * Binds the channel of an endpoint and registers it on the selector.
+     *
+     * @return the size of the socket receive buffer
+     */
+    private int open(Endpoint endpoint) throws IOException {
+        logger.debug("Opening channel and start listening UDP address: {}", endpoint.address);
+        DatagramChannel channel = DatagramChannel.open();
+        try {
+            if (reusePort) {
+                channel.setOption(StandardSocketOptions.SO_REUSEPORT, true);
+            }
+            channel.bind(endpoint.address);
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ, endpoint);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        endpoint.channel = channel;
+        return channel.getOption(StandardSocketOptions.SO_RCVBUF);
+    }
+
+    /**
+     * @return true if SO_REUSEPORT is available on this platform
+     */
+    public static boolean isReusePortSupported() {
+        try (DatagramChannel probe = DatagramChannel.open()) {
+            return probe.supportedOptions().contains(StandardSocketOptions.SO_REUSEPORT);
+        } catch (IOException e) {
+            return false;
+        }
     }
 
     @Override
     public void run() {
-        // Now loop forever, waiting to receive packets and redirect them to mediator.
+        try {
+            // Now loop until shutdown, blocked in select until a datagram arrives, a channel is due to be
+            // opened again or the receiver is woken up.
+            while (!this.shutdown) {
+                try {
+                    selector.select(nextReopenDelay());
+                } catch (IOException e) {
+                    recreateSelector(e);
+                    continue;
+                }
+                selectorDelay = INITIAL_REOPEN_DELAY_MILLIS;
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (key.isValid() && key.isReadable()) {
+                        drain((Endpoint) key.attachment());
+                    }
+                }
+                reopenDue();
+            }
+        } catch (ClosedSelectorException e) {
+            // closed while shutting down
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeAll();
+        }
+        logger.debug("Receiver stopped after {} datagrams", received.get());
+    }
+
+    /**
+     * Receives all the datagrams waiting on the channel of an endpoint.
+     */
+    private void drain(Endpoint endpoint) {
+        DatagramChannel channel = endpoint.channel;
+        if (channel == null) {
+            return;
+        }
         while (!this.shutdown) {
-            datagramSocketHealthRoutine();
-            // Create a buffer to read datagrams into. If a
-            // packet is larger than this buffer, the
-            // excess will simply be discarded!
-            byte[] buffer = new byte[2048];
-
-            // Create a packet to receive data into the buffer
-            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
-            // Wait to receive a datagram
+            buffer.clear();
+            SocketAddress sender;
             try {
-                this.datagramSocket.receive(packet);
-
-                logger.debug("Received packet from: {}. Will process the packet...",
-                        packet.getAddress().getHostAddress());
+                sender = channel.receive(buffer);
+            } catch (IOException e) {
+                failed(endpoint, e);
+                return;
+            }
+            if (sender == null) {
+                // nothing left
+                return;
+            }
+            if (!(sender instanceof InetSocketAddress)) {
+                continue;
+            }
+            received.incrementAndGet();
+            InetAddress address = ((InetSocketAddress) sender).getAddress();
+            // a full buffer means the rest of the datagram has been discarded
+            if (!buffer.hasRemaining()) {
+                logger.warn("Discarded truncated event from {}, larger than {} bytes ({} so far)",
+                        address.getHostAddress(), buffer.capacity(), truncated.incrementAndGet());
+                continue;
+            }
+            buffer.flip();
+            try {
+                this.mediator.processReceivedPacket(address, buffer);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to process event: {}", e.getMessage(), e);
+            }
+        }
+    }
 
-                // datagramPacketToString(packet);
-                String message = new String(packet.getData(), 0, packet.getLength());
-                logger.debug("Processed packet: {}", message);
-                // datagramPacketToString(buffer));
-                // Do mediator something with it
-                this.mediator.processReceivedPacket(packet);
+    /**
+     * Closes the channel of an endpoint which failed, it is opened again after the backoff delay.
+     */
+    private void failed(Endpoint endpoint, IOException e) {
+        endpoint.close();
+        endpoint.reopenAt = System.currentTimeMillis() + endpoint.reopenDelay;
+        logger.warn("Event channel on {} failed: {}, opening it again in {} ms", endpoint.address, e.getMessage(),
+                endpoint.reopenDelay);
+        endpoint.reopenDelay = Math.min(MAX_REOPEN_DELAY_MILLIS, endpoint.reopenDelay * 2);
+        closedEndpoints.add(endpoint);
+    }
 
-                logger.debug("Message delivered with success to mediator.");
-            } catch (SocketTimeoutException e) {
-                logger.trace("Socket Timeout receiving packet.");
-            } catch (IOException e) {
-                logger.debug("One exception has occurred: {} ", e.getMessage());
-                /*
-                 * } catch (PacketIntegrityErrorException e) {
-                 * logger.debug("Packet has one integrity error: {}", e.getMessage());
-                 * } catch (NotOneResponsePacketException e) {
-                 * logger.debug(
-                 * "The message received is not one response. Probably the message received is one broadcast message looking for the socket."
-                 * );
-                 */ }
+    /**
+     * Closes the failed selector and all the channels, then opens a new selector after the backoff delay. The channels
+     * are bound again on the new selector right away.
+     */
+    private void recreateSelector(IOException e) throws InterruptedException {
+        logger.warn("Event selector failed: {}, creating it again in {} ms", e.getMessage(), selectorDelay);
+        closeAll();
+        for (Endpoint endpoint : endpoints) {
+            endpoint.channel = null;
+            endpoint.reopenAt = 0;
+            if (!closedEndpoints.contains(endpoint)) {
+                closedEndpoints.add(endpoint);
+            }
         }
+        while (!shutdown) {
+            synchronized (this) {
+                if (!shutdown) {
+                    wait(selectorDelay);
+                }
+            }
+            selectorDelay = Math.min(MAX_REOPEN_DELAY_MILLIS, selectorDelay * 2);
+            if (shutdown) {
+                return;
+            }
+            try {
+                selector = Selector.open();
+                reopenDue();
+                return;
+            } catch (IOException failure) {
+                logger.debug("Failed to create the event selector again: {}", failure.getMessage());
+            }
+        }
+    }
 
-        // close the socket
-        if (datagramSocket != null) {
-            datagramSocket.close();
+    private long nextReopenDelay() {
+        if (closedEndpoints.isEmpty()) {
+            // no timeout
+            return 0;
+        }
+        long next = Long.MAX_VALUE;
+        for (Endpoint endpoint : closedEndpoints) {
+            next = Math.min(next, endpoint.reopenAt);
         }
+        // select(0) would block without timeout
+        return Math.max(1, next - System.currentTimeMillis());
     }
 
-    private void datagramSocketHealthRoutine() {
-        if (datagramSocket == null || datagramSocket.isClosed()) {
-            logger.debug("Datagram Socket has been closed, will reconnect again...");
-            DatagramSocket newDatagramSocket = null;
+    private void reopenDue() {
+        long now = System.currentTimeMillis();
+        Iterator<Endpoint> iterator = closedEndpoints.iterator();
+        while (iterator.hasNext()) {
+            Endpoint endpoint = iterator.next();
+            if (endpoint.reopenAt > now) {
+                continue;
+            }
             try {
-                newDatagramSocket = new DatagramSocket(listeningPort);
-                newDatagramSocket.setSoTimeout(TIMEOUT_TO_DATAGRAM_RECEPTION);
-                datagramSocket = newDatagramSocket;
-                logger.debug("Datagram Socket reconnected.");
-            } catch (SocketException exception) {
-                logger.error("Problem creating one new socket on port {}. Error: {}", listeningPort,
-                        exception.getLocalizedMessage());
+                open(endpoint);
+                iterator.remove();
+                endpoint.reopenDelay = INITIAL_REOPEN_DELAY_MILLIS;
+                reopened.incrementAndGet();
+                logger.debug("Event channel on {} opened again", endpoint.address);
+            } catch (IOException e) {
+                endpoint.reopenAt = now + endpoint.reopenDelay;
+                logger.debug("Failed to open the event channel on {} again: {}", endpoint.address, e.getMessage());
+                endpoint.reopenDelay = Math.min(MAX_REOPEN_DELAY_MILLIS, endpoint.reopenDelay * 2);
             }
         }
     }
 
-    public static StringBuilder datagramPacketToString(byte[] packet) {
-        if (packet == null) {
-            return null;
+    private void closeAll() {
+        try {
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+        } catch (ClosedSelectorException | IOException e) {
+            logger.debug("Failed to close an event channel: {}", e.getMessage());
         }
-        StringBuilder ret = new StringBuilder();
-        int i = 0;
-        while (packet[i] != 0) {
-            ret.append((char) packet[i]);
-            i++;
+        try {
+            selector.close();
+        } catch (IOException e) {
+            logger.debug("Failed to close the selector: {}", e.getMessage());
         }
-        return ret;
     }
 
     /**
-     * Gracefully shutdown thread. Worst case takes TIMEOUT_TO_DATAGRAM_RECEPTION to shutdown.
+     * @return the number of datagrams received
+     */
+    public long getReceived() {
+        return received.get();
+    }
+
+    /**
+     * @return the number of datagrams discarded because they did not fit in the buffer
+     */
+    public long getTruncated() {
+        return truncated.get();
+    }
+
+    /**
+     * @return the number of times a failed channel was opened again
+     */
+    public long getReopened() {
+        return reopened.get();
+    }
+
+    /**
+     * Gracefully shutdown thread. The selector is woken up, so the thread stops right away and closes the channels.
      */
     public void shutdown() {
         this.shutdown = true;
+        selector.wakeup();
+        synchronized (this) {
+            // waiting to create the selector again
+            notifyAll();
+        }
+    }
+
+    /**
+     * One local address the receiver listens on.
+     */
+    private static class Endpoint {
+        final InetSocketAddress address;
+        DatagramChannel channel;
+        long reopenDelay = INITIAL_REOPEN_DELAY_MILLIS;
+        long reopenAt;
+
+        Endpoint(InetSocketAddress address) {
+            this.address = address;
+        }
+
+        void close() {
+            DatagramChannel current = channel;
+            channel = null;
+            if (current != null) {
+                try {
+                    // also cancels the selection key
+                    current.close();
+                } catch (IOException e) {
+                    // already failed
+                }
+            }
+        }
     }
 }
@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the sharing of identical images and the eviction of the {@link AlbumArtCache}.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+@NonNullByDefault
+public class AlbumArtCacheTest {
+
+    private final AlbumArtCache cache = new AlbumArtCache(100);
+
+    @Test
+    public void identicalImagesAreKeptOnce() {
+        cache.put("a", image(25, 1));
+        cache.put("b", image(25, 1));
+
+        assertEquals(25, cache.getUsedBytes());
+        assertSame(cache.get("a"), cache.get("b"));
+    }
+
+    @Test
+    public void sharedImageIsReleasedWithItsLastKey() {
+        cache.put("a", image(25, 1));
+        cache.put("b", image(25, 1));
+
+        cache.put("a", image(20, 2));
+        assertEquals(45, cache.getUsedBytes());
+
+        cache.put("b", image(10, 3));
+        assertEquals(30, cache.getUsedBytes());
+    }
+
+    @Test
+    public void eldestKeysAreEvictedToStayWithinTheBudget() {
+        putImages("a", "b", "c", "d", "e");
+
+        assertEquals(100, cache.getUsedBytes());
+        assertEquals(1, cache.getEvictions());
+        assertNull(cache.get("a"));
+        assertNotNull(cache.get("b"));
+        assertNotNull(cache.get("e"));
+    }
+
+    @Test
+    public void lookupKeepsAnImage() {
+        putImages("a", "b", "c", "d");
+        cache.get("a");
+
+        putImages("e");
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+    }
+
+    @Test
+    public void evictingOneKeyOfASharedImageKeepsTheImage() {
+        cache.put("a", image(25, 1));
+        cache.put("b", image(25, 1));
+        putImages("c", "d", "e");
+        assertEquals(0, cache.getEvictions());
+
+        putImages("f");
+
+        assertNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(100, cache.getUsedBytes());
+        assertEquals(2, cache.getEvictions());
+    }
+
+    @Test
+    public void imageBiggerThanAQuarterOfTheBudgetIsNotKept() {
+        cache.put("a", image(25, 1));
+        cache.put("big", image(26, 2));
+
+        assertNull(cache.get("big"));
+        assertNotNull(cache.get("a"));
+        assertEquals(25, cache.getUsedBytes());
+        assertEquals(0, cache.getEvictions());
+    }
+
+    @Test
+    public void lookupsAreCounted() {
+        cache.put("a", image(10, 1));
+
+        cache.get("a");
+        cache.get("a");
+        cache.get("b");
+
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void keyTellsTheDevicesUrlsIdsAndSizesApart() {
+        String key = AlbumArtCache.key("192.168.1.10", "/AlbumART/1.jpg", 1, 0);
+
+        assertEquals(key, AlbumArtCache.key("192.168.1.10", "/AlbumART/1.jpg", 1, 0));
+        assertNotEquals(key, AlbumArtCache.key("192.168.1.11", "/AlbumART/1.jpg", 1, 0));
+        assertNotEquals(key, AlbumArtCache.key("192.168.1.10", "/AlbumART/2.jpg", 1, 0));
+        assertNotEquals(key, AlbumArtCache.key("192.168.1.10", "/AlbumART/1.jpg", 2, 0));
+        assertNotEquals(key, AlbumArtCache.key("192.168.1.10", "/AlbumART/1.jpg", null, 0));
+        assertNotEquals(key, AlbumArtCache.key("192.168.1.10", "/AlbumART/1.jpg", 1, 64));
+    }
+
+    /**
+     * Puts a different image of a quarter of the budget under each key.
+     */
+    private void putImages(String... keys) {
+        for (String key : keys) {
+            cache.put(key, image(25, key.charAt(0)));
+        }
+    }
+
+    private static byte[] image(int length, int value) {
+        byte[] image = new byte[length];
+        image[0] = (byte) value;
+        return image;
+    }
+}
@@ -0,0 +1,204 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the compaction and the reloading of the {@link AlbumArtStore}.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+@NonNullByDefault
+public class AlbumArtStoreTest {
+
+    private static final int CAPACITY = 400;
+
+    private @NonNullByDefault({}) Path directory;
+    private final List<AlbumArtStore> stores = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("albumart");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        stores.forEach(AlbumArtStore::close);
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    public void storedImageIsFound() throws IOException {
+        AlbumArtStore store = open();
+        byte[] image = image(50, 1);
+
+        store.put("a", image);
+
+        assertArrayEquals(image, store.get("a"));
+        assertNull(store.get("b"));
+        assertEquals(1, store.getHits());
+        assertEquals(1, store.getMisses());
+    }
+
+    @Test
+    public void identicalImagesAreStoredOnce() throws IOException {
+        AlbumArtStore store = open();
+
+        store.put("a", image(50, 1));
+        store.put("b", image(50, 1));
+
+        assertEquals(50, store.getUsedBytes());
+        assertArrayEquals(image(50, 1), store.get("b"));
+    }
+
+    @Test
+    public void imageLargerThanAQuarterIsNotStored() throws IOException {
+        AlbumArtStore store = open();
+
+        store.put("big", image(CAPACITY / 4 + 1, 1));
+        store.put("empty", new byte[0]);
+
+        assertNull(store.get("big"));
+        assertNull(store.get("empty"));
+        assertEquals(0, store.getUsedBytes());
+    }
+
+    @Test
+    public void fullSegmentIsCompactedToTheRecentlyUsedImages() throws IOException, InterruptedException {
+        AlbumArtStore store = open();
+        for (int i = 1; i <= 4; i++) {
+            store.put("image" + i, image(100, i));
+            Thread.sleep(5);
+        }
+        // image1 is used again, so image2 is now the least recently used
+        store.get("image1");
+        Thread.sleep(5);
+
+        store.put("image5", image(100, 5));
+
+        // three quarters are kept, then the new image fills the segment
+        assertEquals(1, store.getCompactions());
+        assertEquals(CAPACITY, store.getUsedBytes());
+        assertNull(store.get("image2"));
+        assertArrayEquals(image(100, 1), store.get("image1"));
+        assertArrayEquals(image(100, 3), store.get("image3"));
+        assertArrayEquals(image(100, 4), store.get("image4"));
+        assertArrayEquals(image(100, 5), store.get("image5"));
+    }
+
+    @Test
+    public void imagesAreFoundAfterReopening() throws IOException {
+        AlbumArtStore store = open();
+        store.put("a", image(50, 1));
+        store.put("b", image(60, 2));
+        store.put("c", image(50, 1));
+        store.close();
+
+        AlbumArtStore reopened = open();
+
+        assertArrayEquals(image(50, 1), reopened.get("a"));
+        assertArrayEquals(image(60, 2), reopened.get("b"));
+        assertArrayEquals(image(50, 1), reopened.get("c"));
+        assertEquals(110, reopened.getUsedBytes());
+    }
+
+    @Test
+    public void flushedImagesAreFoundWithoutClosing() throws IOException {
+        AlbumArtStore store = open();
+        store.put("a", image(50, 1));
+        store.flush();
+
+        AlbumArtStore reopened = open();
+
+        assertArrayEquals(image(50, 1), reopened.get("a"));
+    }
+
+    @Test
+    public void closedStoreNeitherFindsNorStoresImages() throws IOException {
+        AlbumArtStore store = open();
+        store.put("a", image(50, 1));
+        store.close();
+
+        assertNull(store.get("a"));
+        store.put("b", image(50, 2));
+        assertNull(store.get("b"));
+        // the segment file is left as it was closed
+        assertNull(open().get("b"));
+    }
+
+    @Test
+    public void corruptedImageIsDroppedWhenReopening() throws IOException {
+        AlbumArtStore store = open();
+        store.put("a", image(50, 1));
+        store.put("b", image(50, 2));
+        store.close();
+
+        // the first image starts the segment
+        try (RandomAccessFile segment = new RandomAccessFile(directory.resolve("albumart.dat").toFile(), "rw")) {
+            segment.seek(10);
+            segment.write(0x7f);
+        }
+        AlbumArtStore reopened = open();
+
+        assertNull(reopened.get("a"));
+        assertArrayEquals(image(50, 2), reopened.get("b"));
+        assertEquals(100, reopened.getUsedBytes());
+    }
+
+    @Test
+    public void unreadableIndexStartsAnEmptyStore() throws IOException {
+        AlbumArtStore store = open();
+        store.put("a", image(50, 1));
+        store.close();
+
+        Files.write(directory.resolve("albumart.idx"), new byte[] { 1, 2, 3 });
+        AlbumArtStore reopened = open();
+
+        assertNull(reopened.get("a"));
+        reopened.put("b", image(50, 2));
+        assertArrayEquals(image(50, 2), reopened.get("b"));
+    }
+
+    private AlbumArtStore open() throws IOException {
+        AlbumArtStore store = new AlbumArtStore(directory, CAPACITY);
+        stores.add(store);
+        return store;
+    }
+
+    private static byte[] image(int length, int value) {
+        byte[] image = new byte[length];
+        for (int i = 0; i < length; i++) {
+            image[i] = (byte) (value + i);
+        }
+        return image;
+    }
+}
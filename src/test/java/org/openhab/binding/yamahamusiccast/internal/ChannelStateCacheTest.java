@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.openhab.binding.yamahamusiccast.YamahaMusicCastBindingConstants.*;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.library.types.PercentType;
+import org.openhab.core.library.types.StringType;
+import org.openhab.core.thing.ChannelUID;
+import org.openhab.core.thing.ThingUID;
+
+/**
+ * Tests which states the {@link ChannelStateCache} lets through.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+@NonNullByDefault
+public class ChannelStateCacheTest {
+
+    private final ThingUID thingUID = new ThingUID(THING_TYPE_SPEAKER, "speaker1");
+    private final ChannelUID volume = new ChannelUID(thingUID, "main", CHANNEL_VOLUME);
+    private final ChannelUID input = new ChannelUID(thingUID, "main", CHANNEL_INPUT);
+    private final ChannelStateCache cache = new ChannelStateCache();
+
+    @Test
+    public void unchangedStateIsSuppressed() {
+        assertTrue(cache.update(volume, new PercentType(30)));
+        assertFalse(cache.update(volume, new PercentType(30)));
+        assertTrue(cache.update(volume, new PercentType(31)));
+
+        assertEquals(2, cache.getEmitted());
+        assertEquals(1, cache.getSuppressed());
+    }
+
+    @Test
+    public void channelsAreComparedSeparately() {
+        assertTrue(cache.update(volume, new PercentType(30)));
+        assertTrue(cache.update(input, new StringType("spotify")));
+        assertTrue(cache.update(new ChannelUID(thingUID, "zone2", CHANNEL_VOLUME), new PercentType(30)));
+
+        assertFalse(cache.update(input, new StringType("spotify")));
+    }
+
+    @Test
+    public void forgottenChannelIsPublishedAgain() {
+        cache.update(volume, new PercentType(30));
+        cache.update(input, new StringType("spotify"));
+
+        cache.forget(volume);
+
+        assertTrue(cache.update(volume, new PercentType(30)));
+        assertFalse(cache.update(input, new StringType("spotify")));
+    }
+
+    @Test
+    public void clearedChannelsArePublishedAgain() {
+        cache.update(volume, new PercentType(30));
+        cache.update(input, new StringType("spotify"));
+
+        cache.clear();
+
+        assertTrue(cache.update(volume, new PercentType(30)));
+        assertTrue(cache.update(input, new StringType("spotify")));
+        assertEquals(4, cache.getEmitted());
+        assertEquals(0, cache.getSuppressed());
+    }
+}
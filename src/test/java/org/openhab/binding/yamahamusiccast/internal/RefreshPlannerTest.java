@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.openhab.binding.yamahamusiccast.YamahaMusicCastBindingConstants.*;
+
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.yamahamusiccast.YamahaMusicCastBindingConstants.Zone;
+import org.openhab.binding.yamahamusiccast.internal.api.model.Status;
+import org.openhab.core.thing.ChannelUID;
+import org.openhab.core.thing.ThingUID;
+
+/**
+ * Tests which requests the {@link RefreshPlanner} plans for the linked channels.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+@NonNullByDefault
+public class RefreshPlannerTest {
+
+    private static final Set<Zone> ZONES = EnumSet.of(Zone.main, Zone.zone2);
+    private static final Set<String> NET_USB_INPUTS = Set.of("spotify", "net_radio");
+
+    private final ThingUID thingUID = new ThingUID(THING_TYPE_SPEAKER, "speaker1");
+    private final Set<ChannelUID> linked = new HashSet<>();
+    private final RefreshPlanner planner = new RefreshPlanner(thingUID, linked::contains);
+
+    @Test
+    public void nothingIsPlannedWithoutLinkedChannels() {
+        assertEquals(Set.of(), planner.getZonesToPoll(ZONES));
+        assertFalse(planner.needsPlayInfo(ZONES, Map.of(), null));
+        assertFalse(planner.needsAlbumArt());
+        assertFalse(planner.isPlayerLinked());
+    }
+
+    @Test
+    public void onlyTheZonesWithLinkedChannelsArePolled() {
+        link("zone2", CHANNEL_MUTE);
+
+        assertEquals(EnumSet.of(Zone.zone2), planner.getZonesToPoll(ZONES));
+
+        link("main", CHANNEL_INPUT);
+
+        assertEquals(ZONES, planner.getZonesToPoll(ZONES));
+    }
+
+    @Test
+    public void linkedPlayerPollsAllTheZones() {
+        link(CHANNEL_GROUP_PLAYER, CHANNEL_ARTIST);
+
+        assertEquals(ZONES, planner.getZonesToPoll(ZONES));
+        assertTrue(planner.isPlayerLinked());
+        assertFalse(planner.needsAlbumArt());
+    }
+
+    @Test
+    public void albumArtIsDownloadedForEitherImageChannel() {
+        link(CHANNEL_GROUP_PLAYER, CHANNEL_ALBUM_ART_THUMBNAIL);
+
+        assertTrue(planner.needsAlbumArt());
+        assertTrue(planner.isPlayerLinked());
+    }
+
+    @Test
+    public void playInfoIsFetchedWhenAZoneIsUnknown() {
+        link(CHANNEL_GROUP_PLAYER, CHANNEL_TRACK);
+
+        assertTrue(planner.needsPlayInfo(ZONES, Map.of(Zone.main, status("standby", "spotify")), NET_USB_INPUTS));
+    }
+
+    @Test
+    public void playInfoIsFetchedOnlyWhenAZoneIsOnWithANetUSBInput() {
+        link(CHANNEL_GROUP_PLAYER, CHANNEL_PLAYBACK);
+
+        assertFalse(planner.needsPlayInfo(ZONES,
+                Map.of(Zone.main, status("standby", "spotify"), Zone.zone2, status("on", "hdmi1")), NET_USB_INPUTS));
+        assertTrue(planner.needsPlayInfo(ZONES,
+                Map.of(Zone.main, status("standby", "spotify"), Zone.zone2, status("on", "net_radio")),
+                NET_USB_INPUTS));
+    }
+
+    @Test
+    public void playInfoIsFetchedForAnyInputWhenTheNetUSBInputsAreUnknown() {
+        link(CHANNEL_GROUP_PLAYER, CHANNEL_ALBUM);
+
+        assertTrue(planner.needsPlayInfo(ZONES,
+                Map.of(Zone.main, status("on", "hdmi1"), Zone.zone2, status("standby", "hdmi1")), null));
+        assertFalse(planner.needsPlayInfo(ZONES,
+                Map.of(Zone.main, status("standby", "hdmi1"), Zone.zone2, status("standby", "hdmi1")), null));
+    }
+
+    @Test
+    public void playInfoIsNotFetchedWithoutALinkedPlayerChannel() {
+        link("main", CHANNEL_POWER);
+
+        assertFalse(planner.needsPlayInfo(ZONES, Map.of(Zone.main, status("on", "spotify")), NET_USB_INPUTS));
+    }
+
+    private void link(String group, String channel) {
+        linked.add(new ChannelUID(thingUID, group, channel));
+    }
+
+    private static Status status(String power, String input) {
+        Status status = new Status();
+        status.setPower(power);
+        status.setInput(input);
+        return status;
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.BooleanSupplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests how the {@link UpdateCoalescer} turns the flags into fetches.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+@NonNullByDefault
+public class UpdateCoalescerTest {
+
+    private static final long SETTLE_MILLIS = 30;
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final List<CompletableFuture<?>> fetches = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void burstOfFlagsIsFetchedOnce() throws InterruptedException {
+        UpdateCoalescer coalescer = new UpdateCoalescer(scheduler, this::fetch, SETTLE_MILLIS);
+
+        for (int i = 0; i < 5; i++) {
+            coalescer.invalidate();
+        }
+        waitFor(() -> fetches.size() == 1);
+        fetches.get(0).complete(null);
+
+        Thread.sleep(3 * SETTLE_MILLIS);
+        assertEquals(1, fetches.size());
+        assertEquals(5, coalescer.getRaised());
+        assertEquals(1, coalescer.getFetches());
+        assertEquals(4, coalescer.getSaved());
+    }
+
+    @Test
+    public void flagsRaisedDuringTheFetchAreFetchedOnceMore() throws InterruptedException {
+        UpdateCoalescer coalescer = new UpdateCoalescer(scheduler, this::fetch, SETTLE_MILLIS);
+        coalescer.invalidate();
+        waitFor(() -> fetches.size() == 1);
+
+        coalescer.invalidate();
+        coalescer.invalidate();
+        coalescer.invalidate();
+        Thread.sleep(3 * SETTLE_MILLIS);
+        // nothing more while the first fetch is in flight
+        assertEquals(1, fetches.size());
+
+        fetches.get(0).complete(null);
+        waitFor(() -> fetches.size() == 2);
+        fetches.get(1).complete(null);
+
+        Thread.sleep(3 * SETTLE_MILLIS);
+        assertEquals(2, fetches.size());
+        assertEquals(4, coalescer.getRaised());
+        assertEquals(2, coalescer.getSaved());
+    }
+
+    @Test
+    public void failedFetchStillFetchesTheDirtyData() throws InterruptedException {
+        UpdateCoalescer coalescer = new UpdateCoalescer(scheduler, this::fetch, SETTLE_MILLIS);
+        coalescer.invalidate();
+        waitFor(() -> fetches.size() == 1);
+        coalescer.invalidate();
+
+        fetches.get(0).completeExceptionally(new IllegalStateException("unreachable"));
+
+        waitFor(() -> fetches.size() == 2);
+    }
+
+    @Test
+    public void stopCancelsTheScheduledFetch() throws InterruptedException {
+        UpdateCoalescer coalescer = new UpdateCoalescer(scheduler, this::fetch, SETTLE_MILLIS);
+
+        coalescer.invalidate();
+        coalescer.stop();
+        coalescer.invalidate();
+
+        Thread.sleep(3 * SETTLE_MILLIS);
+        assertTrue(fetches.isEmpty());
+        assertEquals(1, coalescer.getRaised());
+    }
+
+    private CompletableFuture<?> fetch() {
+        CompletableFuture<?> fetch = new CompletableFuture<>();
+        fetches.add(fetch);
+        return fetch;
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+}
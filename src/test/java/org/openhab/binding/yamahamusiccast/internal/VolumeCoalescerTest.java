@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.BooleanSupplier;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.core.library.types.PercentType;
+
+/**
+ * Tests the last-write-wins policy of the {@link VolumeCoalescer}.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+@NonNullByDefault
+public class VolumeCoalescerTest {
+
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final List<PercentType> sent = new CopyOnWriteArrayList<>();
+    private final List<CompletableFuture<?>> requests = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void onlyTheNewestTargetIsSentOnceTheRequestIsDone() {
+        VolumeCoalescer coalescer = new VolumeCoalescer(scheduler, this::send, 0);
+
+        coalescer.submit(new PercentType(10));
+        coalescer.submit(new PercentType(20));
+        coalescer.submit(new PercentType(30));
+        coalescer.submit(new PercentType(40));
+        assertEquals(List.of(new PercentType(10)), sent);
+
+        requests.get(0).complete(null);
+
+        assertEquals(List.of(new PercentType(10), new PercentType(40)), sent);
+        assertEquals(4, coalescer.getSubmitted());
+        assertEquals(2, coalescer.getSent());
+        assertEquals(2, coalescer.getDropped());
+    }
+
+    @Test
+    public void failedRequestDoesNotStopTheNextOne() {
+        VolumeCoalescer coalescer = new VolumeCoalescer(scheduler, this::send, 0);
+
+        coalescer.submit(new PercentType(10));
+        coalescer.submit(new PercentType(20));
+        requests.get(0).completeExceptionally(new IllegalStateException("rejected"));
+
+        assertEquals(List.of(new PercentType(10), new PercentType(20)), sent);
+    }
+
+    @Test
+    public void nextTargetWaitsForTheMinimumInterval() throws InterruptedException {
+        VolumeCoalescer coalescer = new VolumeCoalescer(scheduler, this::send, 200);
+
+        long start = System.currentTimeMillis();
+        coalescer.submit(new PercentType(10));
+        requests.get(0).complete(null);
+        coalescer.submit(new PercentType(20));
+        assertEquals(1, sent.size());
+
+        waitFor(() -> sent.size() == 2);
+        assertTrue(System.currentTimeMillis() - start >= 200);
+        assertEquals(new PercentType(20), sent.get(1));
+    }
+
+    @Test
+    public void stopDiscardsTheWaitingTarget() throws InterruptedException {
+        VolumeCoalescer coalescer = new VolumeCoalescer(scheduler, this::send, 50);
+
+        coalescer.submit(new PercentType(10));
+        coalescer.submit(new PercentType(20));
+        coalescer.stop();
+        requests.get(0).complete(null);
+        coalescer.submit(new PercentType(30));
+
+        Thread.sleep(100);
+        assertEquals(List.of(new PercentType(10)), sent);
+    }
+
+    private CompletableFuture<?> send(PercentType volume) {
+        CompletableFuture<?> request = new CompletableFuture<>();
+        sent.add(volume);
+        requests.add(request);
+        return request;
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.yamahamusiccast.internal.api.CircuitBreaker.State;
+
+/**
+ * Tests the state transitions of the {@link CircuitBreaker}.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+@NonNullByDefault
+public class CircuitBreakerTest {
+
+    private final List<State> notified = new CopyOnWriteArrayList<>();
+
+    @Test
+    public void staysClosedBelowTheThreshold() {
+        CircuitBreaker breaker = new CircuitBreaker(3, 60000, 60000, notified::add);
+
+        breaker.onFailure();
+        breaker.onFailure();
+
+        assertEquals(State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        assertTrue(notified.isEmpty());
+    }
+
+    @Test
+    public void successResetsTheConsecutiveFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(3, 60000, 60000, notified::add);
+
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+
+        assertEquals(State.CLOSED, breaker.getState());
+        // a success while closed is not a state change
+        assertTrue(notified.isEmpty());
+    }
+
+    @Test
+    public void opensAtTheThresholdAndRejects() {
+        CircuitBreaker breaker = new CircuitBreaker(3, 60000, 60000, notified::add);
+
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onFailure();
+
+        assertEquals(State.OPEN, breaker.getState());
+        assertEquals(List.of(State.OPEN), notified);
+        assertEquals(1, breaker.getTrips());
+        assertFalse(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(2, breaker.getRejected());
+        assertTrue(breaker.getRetryDelayMillis() > 0);
+    }
+
+    @Test
+    public void onlyOneProbeOnceTheDelayElapsed() {
+        CircuitBreaker breaker = new CircuitBreaker(1, 0, 0, notified::add);
+        breaker.onFailure();
+
+        assertTrue(breaker.tryAcquire());
+        assertEquals(State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(1, breaker.getRejected());
+    }
+
+    @Test
+    public void successfulProbeClosesTheCircuit() {
+        CircuitBreaker breaker = new CircuitBreaker(1, 0, 0, notified::add);
+        breaker.onFailure();
+        assertTrue(breaker.tryAcquire());
+
+        breaker.onSuccess();
+
+        assertEquals(State.CLOSED, breaker.getState());
+        assertEquals(List.of(State.OPEN, State.CLOSED), notified);
+        assertTrue(breaker.tryAcquire());
+        assertEquals(0, breaker.getRetryDelayMillis());
+    }
+
+    @Test
+    public void failedProbeOpensAgainWithTheBackoffDoubledUpToTheMaximum() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(1, 100, 250, notified::add);
+        breaker.onFailure();
+        assertTrue(breaker.getRetryDelayMillis() <= 100);
+
+        Thread.sleep(120);
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(State.OPEN, breaker.getState());
+        long delay = breaker.getRetryDelayMillis();
+        assertTrue(delay > 100 && delay <= 200, "backoff doubled to 200 ms, was " + delay);
+
+        Thread.sleep(220);
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        delay = breaker.getRetryDelayMillis();
+        assertTrue(delay > 200 && delay <= 250, "backoff capped at 250 ms, was " + delay);
+
+        assertEquals(3, breaker.getTrips());
+        assertEquals(List.of(State.OPEN, State.OPEN, State.OPEN), notified);
+    }
+
+    @Test
+    public void backoffIsResetOnceClosed() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(1, 100, 1000, notified::add);
+        breaker.onFailure();
+        Thread.sleep(120);
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        Thread.sleep(220);
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess();
+
+        breaker.onFailure();
+
+        assertTrue(breaker.getRetryDelayMillis() <= 100);
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the {@link LatencyEstimator}.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+@NonNullByDefault
+public class LatencyEstimatorTest {
+
+    @Test
+    public void ceilingIsUsedUntilTheFirstSample() {
+        LatencyEstimator estimator = new LatencyEstimator(100, 5000);
+
+        assertEquals(5000, estimator.getTimeoutMillis());
+        estimator.timedOut();
+        assertEquals(5000, estimator.getTimeoutMillis());
+    }
+
+    @Test
+    public void firstSampleSetsHalfOfItAsDeviation() {
+        LatencyEstimator estimator = new LatencyEstimator(100, 5000);
+
+        estimator.sample(200);
+
+        assertEquals(200, estimator.getSmoothedMillis());
+        assertEquals(100, estimator.getDeviationMillis());
+        // 200 + 4 * 100
+        assertEquals(600, estimator.getTimeoutMillis());
+    }
+
+    @Test
+    public void laterSamplesAreSmoothed() {
+        LatencyEstimator estimator = new LatencyEstimator(100, 5000);
+
+        estimator.sample(200);
+        estimator.sample(100);
+
+        // 3/4 * 100 + 1/4 * |200 - 100|
+        assertEquals(100, estimator.getDeviationMillis());
+        // 7/8 * 200 + 1/8 * 100 = 187.5
+        assertEquals(188, estimator.getSmoothedMillis());
+        assertEquals(588, estimator.getTimeoutMillis());
+        assertEquals(2, estimator.getSamples());
+    }
+
+    @Test
+    public void timeoutsDoubleTheTimeoutUntilTheNextSample() {
+        LatencyEstimator estimator = new LatencyEstimator(100, 5000);
+        estimator.sample(200);
+
+        estimator.timedOut();
+        assertEquals(1200, estimator.getTimeoutMillis());
+        estimator.timedOut();
+        assertEquals(2400, estimator.getTimeoutMillis());
+        estimator.timedOut();
+        assertEquals(4800, estimator.getTimeoutMillis());
+        estimator.timedOut();
+        assertEquals(5000, estimator.getTimeoutMillis());
+        assertEquals(4, estimator.getTimeouts());
+
+        estimator.sample(200);
+        // 3/4 * 100, the smoothed time is unchanged
+        assertEquals(500, estimator.getTimeoutMillis());
+    }
+
+    @Test
+    public void backoffStopsDoublingAfterSixteenTimeouts() {
+        LatencyEstimator estimator = new LatencyEstimator(1, Long.MAX_VALUE);
+        estimator.sample(2);
+
+        for (int i = 0; i < 20; i++) {
+            estimator.timedOut();
+        }
+
+        // (2 + 4 * 1) << 16
+        assertEquals(6L << 16, estimator.getTimeoutMillis());
+    }
+
+    @Test
+    public void timeoutIsBoundedByFloorAndCeiling() {
+        LatencyEstimator fast = new LatencyEstimator(1000, 2000);
+        fast.sample(10);
+        assertEquals(1000, fast.getTimeoutMillis());
+
+        LatencyEstimator slow = new LatencyEstimator(1000, 2000);
+        slow.sample(5000);
+        assertEquals(2000, slow.getTimeoutMillis());
+    }
+
+    @Test
+    public void ceilingIsNeverBelowFloor() {
+        LatencyEstimator estimator = new LatencyEstimator(3000, 1000);
+
+        assertEquals(3000, estimator.getTimeoutMillis());
+        estimator.sample(10);
+        assertEquals(3000, estimator.getTimeoutMillis());
+    }
+}
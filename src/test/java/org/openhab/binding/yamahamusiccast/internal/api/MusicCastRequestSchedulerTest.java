@@ -0,0 +1,193 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jetty.client.HttpClient;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.yamahamusiccast.internal.api.MusicCastRequestScheduler.Priority;
+import org.openhab.binding.yamahamusiccast.internal.api.model.Response;
+
+import com.google.gson.Gson;
+
+/**
+ * Tests the priorities and the slot rule of the {@link MusicCastRequestScheduler}.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+@NonNullByDefault
+public class MusicCastRequestSchedulerTest {
+
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+    private final LatencyEstimator latency = new LatencyEstimator(100, 5000);
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker(1, 60000, 60000, state -> {
+    });
+
+    @Test
+    public void requestsAreSentByPriorityThenInOrder() {
+        MusicCastRequestScheduler scheduler = new MusicCastRequestScheduler(1, latency, circuitBreaker);
+        FakeRequest first = new FakeRequest("first");
+        scheduler.submit(Priority.POLL, first);
+        FakeRequest poll = new FakeRequest("poll");
+        FakeRequest event = new FakeRequest("event");
+        FakeRequest command1 = new FakeRequest("command1");
+        FakeRequest command2 = new FakeRequest("command2");
+        scheduler.submit(Priority.POLL, poll);
+        scheduler.submit(Priority.EVENT, event);
+        scheduler.submit(Priority.COMMAND, command1);
+        scheduler.submit(Priority.COMMAND, command2);
+        assertEquals(4, scheduler.getQueueDepth());
+
+        first.answer();
+        command1.answer();
+        command2.answer();
+        event.answer();
+
+        assertEquals(List.of("first", "command1", "command2", "event", "poll"), sent);
+        assertEquals(1, scheduler.getInFlight());
+        assertEquals(4, scheduler.getMaxQueueDepth());
+    }
+
+    @Test
+    public void pollsNeverTakeTheLastFreeSlot() {
+        MusicCastRequestScheduler scheduler = new MusicCastRequestScheduler(2, latency, circuitBreaker);
+        FakeRequest poll1 = new FakeRequest("poll1");
+        FakeRequest poll2 = new FakeRequest("poll2");
+        FakeRequest command = new FakeRequest("command");
+
+        scheduler.submit(Priority.POLL, poll1);
+        scheduler.submit(Priority.POLL, poll2);
+        assertEquals(List.of("poll1"), sent);
+
+        scheduler.submit(Priority.COMMAND, command);
+        assertEquals(List.of("poll1", "command"), sent);
+        assertEquals(2, scheduler.getInFlight());
+
+        // the command still holds a slot, so the last free one is kept for the next command
+        poll1.answer();
+        assertEquals(List.of("poll1", "command"), sent);
+
+        command.answer();
+        assertEquals(List.of("poll1", "command", "poll2"), sent);
+    }
+
+    @Test
+    public void eventsMayTakeTheLastFreeSlot() {
+        MusicCastRequestScheduler scheduler = new MusicCastRequestScheduler(2, latency, circuitBreaker);
+
+        scheduler.submit(Priority.POLL, new FakeRequest("poll"));
+        scheduler.submit(Priority.EVENT, new FakeRequest("event"));
+
+        assertEquals(List.of("poll", "event"), sent);
+    }
+
+    @Test
+    public void pollTakesTheOnlySlot() {
+        MusicCastRequestScheduler scheduler = new MusicCastRequestScheduler(1, latency, circuitBreaker);
+        FakeRequest poll = new FakeRequest("poll");
+
+        scheduler.submit(Priority.POLL, poll);
+        scheduler.submit(Priority.COMMAND, new FakeRequest("command"));
+
+        // the command waits behind the poll
+        assertEquals(List.of("poll"), sent);
+        poll.answer();
+        assertEquals(List.of("poll", "command"), sent);
+    }
+
+    @Test
+    public void answerCompletesTheRequestAndSamplesTheLatency() throws Exception {
+        MusicCastRequestScheduler scheduler = new MusicCastRequestScheduler(1, latency, circuitBreaker);
+        FakeRequest request = new FakeRequest("request");
+
+        CompletableFuture<@Nullable Response> result = scheduler.submit(Priority.COMMAND, request);
+        request.answer();
+
+        assertSame(request.answer, result.get(1, TimeUnit.SECONDS));
+        assertEquals(1, latency.getSamples());
+        assertEquals(1, scheduler.getExecuted(Priority.COMMAND));
+        assertEquals(0, scheduler.getInFlight());
+    }
+
+    @Test
+    public void openCircuitFailsTheRequestsWithoutSendingThem() {
+        MusicCastRequestScheduler scheduler = new MusicCastRequestScheduler(2, latency, circuitBreaker);
+        circuitBreaker.onFailure();
+
+        CompletableFuture<@Nullable Response> result = scheduler.submit(Priority.COMMAND, new FakeRequest("command"));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(1, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof MusicCastCommunicationException);
+        assertTrue(sent.isEmpty());
+        assertEquals(0, scheduler.getInFlight());
+    }
+
+    @Test
+    public void communicationFailureOpensTheCircuit() {
+        MusicCastRequestScheduler scheduler = new MusicCastRequestScheduler(1, latency, circuitBreaker);
+        FakeRequest request = new FakeRequest("request");
+
+        CompletableFuture<@Nullable Response> result = scheduler.submit(Priority.COMMAND, request);
+        request.response.completeExceptionally(new MusicCastCommunicationException("unreachable"));
+
+        assertTrue(result.isCompletedExceptionally());
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    public void stopFailsTheQueuedRequests() {
+        MusicCastRequestScheduler scheduler = new MusicCastRequestScheduler(1, latency, circuitBreaker);
+        scheduler.submit(Priority.COMMAND, new FakeRequest("sent"));
+        CompletableFuture<@Nullable Response> queued = scheduler.submit(Priority.COMMAND, new FakeRequest("queued"));
+
+        scheduler.stop();
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> queued.get(1, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof MusicCastException);
+        assertTrue(scheduler.submit(Priority.COMMAND, new FakeRequest("late")).isCompletedExceptionally());
+        assertEquals(List.of("sent"), sent);
+    }
+
+    /**
+     * A request answered by the test.
+     */
+    private class FakeRequest extends MusicCastRequest<Response> {
+        final String name;
+        final CompletableFuture<@Nullable Response> response = new CompletableFuture<>();
+        final Response answer = new Response();
+
+        FakeRequest(String name) {
+            super(Response.class, new Gson(), new HttpClient(), "http://localhost/" + name);
+            this.name = name;
+        }
+
+        @Override
+        public CompletableFuture<@Nullable Response> executeAsync(long timeoutMillis) {
+            sent.add(name);
+            return response;
+        }
+
+        void answer() {
+            response.complete(answer);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.client.api.Response;
+import org.eclipse.jetty.client.api.Result;
+import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.io.ByteBufferPool;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.yamahamusiccast.internal.api.MusicCastResponseListener.ContentDecoder;
+
+/**
+ * Tests the streaming decoding of the {@link MusicCastResponseListener}.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+@NonNullByDefault
+public class MusicCastResponseListenerTest {
+
+    // two, three and four byte sequences, the last one decoded to a surrogate pair
+    private static final String TITLE = "{\"track\":\"D\u00e9j\u00e0 vu \u2013 Beyonc\u00e9 \uD83C\uDFB5 \u266A\"}";
+
+    private final CountingBufferPool bufferPool = new CountingBufferPool();
+    private final HttpFields headers = new HttpFields();
+    private final Response response = mock(Response.class);
+
+    public MusicCastResponseListenerTest() {
+        when(response.getHeaders()).thenReturn(headers);
+        when(response.getStatus()).thenReturn(200);
+    }
+
+    @Test
+    public void sequencesSplitAcrossChunksAreDecoded() throws Exception {
+        byte[] content = TITLE.getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(TITLE, receive(content, 1, 64));
+        assertEquals(TITLE, receive(content, 3, 64));
+        assertEquals(0, bufferPool.getOutstanding());
+    }
+
+    @Test
+    public void surrogatePairIsSplitAcrossReads() throws Exception {
+        byte[] content = TITLE.getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(TITLE, receive(content, content.length, 1));
+        assertEquals(TITLE, receive(content, 5, 2));
+    }
+
+    @Test
+    public void malformedInputIsReplacedAsByTheStringConstructor() throws Exception {
+        // a stray continuation byte, an overlong form, and a sequence truncated by the end of the content
+        byte[] content = { '[', (byte) 0x80, 'a', (byte) 0xC0, (byte) 0xAF, 'b', (byte) 0xE2, (byte) 0x82 };
+        String expected = new String(content, StandardCharsets.UTF_8);
+
+        assertEquals(expected, receive(content, 1, 64));
+        assertEquals(expected, receive(content, content.length, 1));
+        assertTrue(expected.startsWith("[\uFFFDa\uFFFD"), expected);
+        assertTrue(expected.endsWith("b\uFFFD"), expected);
+    }
+
+    @Test
+    public void contentLargerThanTheBufferIsDecoded() throws Exception {
+        String track = "{\"track\":\"" + "\u00e9".repeat(3000) + "\"}";
+
+        assertEquals(track, receive(track.getBytes(StandardCharsets.UTF_8), 1000, 256));
+        assertEquals(0, bufferPool.getOutstanding());
+    }
+
+    @Test
+    public void contentIsPresizedFromTheContentLength() throws Exception {
+        byte[] content = TITLE.getBytes(StandardCharsets.UTF_8);
+        headers.put(HttpHeader.CONTENT_LENGTH, Integer.toString(content.length));
+
+        assertEquals(TITLE, receive(content, 7, 64));
+        assertEquals(1, bufferPool.getAcquired());
+    }
+
+    @Test
+    public void failedResponseCompletesExceptionallyAndReleasesTheBuffer() {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        MusicCastResponseListener<String> listener = new MusicCastResponseListener<>(bufferPool, this::read, future);
+
+        listener.onHeaders(response);
+        listener.onContent(response, ByteBuffer.wrap(new byte[] { '{' }));
+        listener.onComplete(new Result(mock(Request.class), response, new IOException("Connection reset")));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof MusicCastException);
+        assertEquals(0, bufferPool.getOutstanding());
+    }
+
+    private String receive(byte[] content, int chunkSize, int readSize) throws Exception {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        ContentDecoder<String> decoder = (status, reader) -> read(reader, readSize);
+        MusicCastResponseListener<String> listener = new MusicCastResponseListener<>(bufferPool, decoder, future);
+
+        listener.onHeaders(response);
+        for (int offset = 0; offset < content.length; offset += chunkSize) {
+            listener.onContent(response,
+                    ByteBuffer.wrap(content, offset, Math.min(chunkSize, content.length - offset)).slice());
+        }
+        listener.onComplete(new Result(mock(Request.class), response));
+        return future.get(1, TimeUnit.SECONDS);
+    }
+
+    private String read(int status, Reader reader) throws MusicCastException {
+        return read(reader, 64);
+    }
+
+    private static String read(Reader reader, int readSize) throws MusicCastException {
+        StringBuilder text = new StringBuilder();
+        char[] chars = new char[readSize];
+        try {
+            for (int count = reader.read(chars); count >= 0; count = reader.read(chars)) {
+                text.append(chars, 0, count);
+            }
+        } catch (IOException e) {
+            throw new MusicCastException(e);
+        }
+        return text.toString();
+    }
+
+    /**
+     * A pool which counts the buffers not given back.
+     */
+    private static class CountingBufferPool implements ByteBufferPool {
+        private final Set<ByteBuffer> outstanding = Collections.newSetFromMap(new IdentityHashMap<>());
+        private int acquired;
+
+        @Override
+        public synchronized ByteBuffer acquire(int size, boolean direct) {
+            ByteBuffer buffer = ByteBuffer.allocate(size);
+            // handed out in flush mode, as the pools of Jetty do
+            buffer.flip();
+            outstanding.add(buffer);
+            acquired++;
+            return buffer;
+        }
+
+        @Override
+        public synchronized void release(@Nullable ByteBuffer buffer) {
+            assertTrue(outstanding.remove(buffer), "released a buffer not acquired from the pool");
+        }
+
+        synchronized int getOutstanding() {
+            return outstanding.size();
+        }
+
+        synchronized int getAcquired() {
+            return acquired;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal.api;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests which errors the {@link RetryPolicy} retries.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+@NonNullByDefault
+public class RetryPolicyTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void transientCodesAreRetried() throws Exception {
+        RetryPolicy policy = new RetryPolicy(scheduler, 1, 4, 5000);
+
+        CompletableFuture<String> result = policy.execute(() -> attempts.incrementAndGet() < 3
+                ? CompletableFuture.failedFuture(error(MusicCastResponseCode.GUARDED))
+                : CompletableFuture.completedFuture("done"));
+
+        assertEquals("done", result.get(5, TimeUnit.SECONDS));
+        assertEquals(3, attempts.get());
+        assertEquals(2, policy.getRetries());
+    }
+
+    @Test
+    public void everyTransientCodeIsRetried() throws Exception {
+        for (MusicCastResponseCode code : MusicCastResponseCode.values()) {
+            attempts.set(0);
+            RetryPolicy policy = new RetryPolicy(scheduler, 1, 1, 5000);
+
+            CompletableFuture<String> result = policy.execute(() -> attempts.incrementAndGet() < 2
+                    ? CompletableFuture.failedFuture(error(code))
+                    : CompletableFuture.completedFuture("done"));
+
+            if (code.isTransient()) {
+                assertEquals("done", result.get(5, TimeUnit.SECONDS));
+                assertEquals(2, attempts.get(), code.name());
+            } else {
+                assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+                assertEquals(1, attempts.get(), code.name());
+            }
+        }
+    }
+
+    @Test
+    public void permanentCodesAreNotRetried() {
+        RetryPolicy policy = new RetryPolicy(scheduler, 1, 4, 5000);
+        MusicCastResponseException error = error(MusicCastResponseCode.INVALID_PARAMETER);
+
+        CompletableFuture<String> result = policy.execute(() -> {
+            attempts.incrementAndGet();
+            return CompletableFuture.failedFuture(error);
+        });
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertSame(error, e.getCause());
+        assertEquals(1, attempts.get());
+        assertEquals(0, policy.getRetries());
+    }
+
+    @Test
+    public void communicationErrorsAreNotRetried() {
+        RetryPolicy policy = new RetryPolicy(scheduler, 1, 4, 5000);
+
+        CompletableFuture<String> result = policy.execute(() -> {
+            attempts.incrementAndGet();
+            return CompletableFuture.failedFuture(new MusicCastCommunicationException("unreachable"));
+        });
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof MusicCastCommunicationException);
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void lastErrorIsReturnedAtTheDeadline() {
+        RetryPolicy policy = new RetryPolicy(scheduler, 10, 20, 100);
+
+        CompletableFuture<String> result = policy.execute(() -> {
+            attempts.incrementAndGet();
+            return CompletableFuture.failedFuture(error(MusicCastResponseCode.INITIALIZING));
+        });
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertEquals(MusicCastResponseCode.INITIALIZING, ((MusicCastResponseException) e.getCause()).getResponseCode());
+        assertTrue(attempts.get() > 1);
+    }
+
+    @Test
+    public void stoppedPolicySendsNothing() {
+        RetryPolicy policy = new RetryPolicy(scheduler, 1, 4, 5000);
+        policy.stop();
+
+        CompletableFuture<String> result = policy.execute(() -> {
+            attempts.incrementAndGet();
+            return CompletableFuture.completedFuture("done");
+        });
+
+        assertTrue(result.isCompletedExceptionally());
+        assertEquals(0, attempts.get());
+    }
+
+    private static MusicCastResponseException error(MusicCastResponseCode code) {
+        return new MusicCastResponseException(code, code.getCode());
+    }
+}
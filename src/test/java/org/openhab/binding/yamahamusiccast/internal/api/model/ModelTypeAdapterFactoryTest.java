@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal.api.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.yamahamusiccast.internal.api.model.events.EventTypeAdapterFactory;
+
+import com.google.gson.FieldNamingPolicy;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Tests the adapters of the {@link ModelTypeAdapterFactory}, with the {@link Gson} configured as the handler factory
+ * does.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+@NonNullByDefault
+public class ModelTypeAdapterFactoryTest {
+
+    private final ModelTypeAdapterFactory factory = new ModelTypeAdapterFactory();
+    private final Gson gson = new GsonBuilder().setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
+            .registerTypeAdapterFactory(factory).registerTypeAdapterFactory(new EventTypeAdapterFactory()).create();
+
+    @Test
+    public void readsStatusAndSkipsUnknownFields() {
+        Status status = gson.fromJson("{\"response_code\":0,\"power\":\"on\",\"sleep\":0,\"volume\":45,"
+                + "\"mute\":true,\"max_volume\":161,\"input\":\"spotify\",\"tone_control\":{\"mode\":\"manual\","
+                + "\"bass\":0},\"actual_volume\":{\"mode\":\"db\",\"value\":-40.5},\"link_control\":\"standard\"}",
+                Status.class);
+
+        assertEquals(Integer.valueOf(0), status.getResponseCode());
+        assertEquals("on", status.getPower());
+        assertEquals(Integer.valueOf(45), status.getVolume());
+        assertTrue(status.isMute());
+        assertEquals(Integer.valueOf(161), status.getMaxVolume());
+        assertEquals("spotify", status.getInput());
+        assertEquals("standard", status.getLinkControl());
+    }
+
+    @Test
+    public void acceptsNullValues() {
+        Status status = gson.fromJson("{\"power\":null,\"volume\":null,\"mute\":null}", Status.class);
+
+        assertNull(status.getPower());
+        assertNull(status.getVolume());
+        assertFalse(status.isMute());
+        assertNull(gson.fromJson("null", Status.class));
+    }
+
+    @Test
+    public void readsZonesAndNetUSBInputsOfFeatures() {
+        Features features = gson.fromJson("{\"response_code\":0,\"system\":{\"func_list\":[\"wired_lan\"],"
+                + "\"input_list\":[{\"id\":\"spotify\",\"distribution_enable\":true,\"play_info_type\":\"netusb\"},"
+                + "{\"id\":\"hdmi1\",\"play_info_type\":\"none\"},{\"play_info_type\":\"netusb\"}]},"
+                + "\"zone\":[{\"id\":\"main\",\"func_list\":[\"power\",\"volume\"]},{\"id\":\"zone2\"}],"
+                + "\"netusb\":{\"preset\":{\"num\":40}}}", Features.class);
+
+        assertEquals(List.of("main", "zone2"), features.getZones());
+        assertEquals(List.of("spotify"), features.getNetUSBInputs());
+    }
+
+    @Test
+    public void readsPlayInfo() {
+        PlayInfo playInfo = gson.fromJson("{\"response_code\":0,\"input\":\"spotify\",\"playback\":\"play\","
+                + "\"artist\":\"Artist\",\"album\":\"Album\",\"track\":\"Track\","
+                + "\"albumart_url\":\"/YamahaRemoteControl/AlbumART/AlbumART3929.jpg\",\"albumart_id\":3929,"
+                + "\"play_time\":12,\"total_time\":240}", PlayInfo.class);
+
+        assertEquals("spotify", playInfo.getInput());
+        assertEquals("play", playInfo.getPlayback());
+        assertEquals("Artist", playInfo.getArtist());
+        assertEquals("Album", playInfo.getAlbum());
+        assertEquals("Track", playInfo.getTrack());
+        assertEquals("/YamahaRemoteControl/AlbumART/AlbumART3929.jpg", playInfo.getAlbumartUrl());
+        assertEquals(Integer.valueOf(3929), playInfo.getAlbumartId());
+        assertEquals(Integer.valueOf(240), playInfo.getTotalTime());
+    }
+
+    @Test
+    public void modelsAreWrittenByTheDefaultAdapter() {
+        Status status = new Status();
+        status.setPower("on");
+        status.setVolume(30);
+        status.setInput("hdmi1");
+
+        String json = gson.toJson(status);
+        Status read = gson.fromJson(json, Status.class);
+
+        assertTrue(json.contains("\"power\":\"on\""), json);
+        assertEquals("on", read.getPower());
+        assertEquals(Integer.valueOf(30), read.getVolume());
+        assertEquals("hdmi1", read.getInput());
+        assertEquals("null", gson.toJson(null, Status.class));
+    }
+
+    @Test
+    public void otherTypesAreLeftToGson() {
+        assertNull(factory.create(gson, TypeToken.get(String.class)));
+        assertNotNull(factory.create(gson, TypeToken.get(Status.class)));
+    }
+}
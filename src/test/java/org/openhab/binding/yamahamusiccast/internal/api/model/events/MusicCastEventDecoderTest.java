@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal.api.model.events;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.yamahamusiccast.YamahaMusicCastBindingConstants.Zone;
+
+import com.google.gson.JsonParseException;
+
+/**
+ * Tests the {@link MusicCastEventDecoder}, in particular that the reused event does not keep anything of the previous
+ * one.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+@NonNullByDefault
+public class MusicCastEventDecoderTest {
+
+    private final MusicCastEventDecoder decoder = new MusicCastEventDecoder();
+
+    @Test
+    public void decodesTheSectionsOfTheZones() {
+        MusicCastEvent event = decoder.decode("{\"device_id\":\"00A0DEDCF73E\",\"main\":{\"power\":\"on\","
+                + "\"volume\":30,\"status_updated\":true},\"zone2\":{\"mute\":true}}");
+
+        assertEquals("00A0DEDCF73E", event.getDeviceId());
+        assertEquals("on", event.getZone(Zone.main).getPower());
+        assertEquals(Integer.valueOf(30), event.getZone(Zone.main).getVolume());
+        assertEquals(Boolean.TRUE, event.getZone(Zone.main).getStatusUpdated());
+        assertEquals(Boolean.TRUE, event.getZone(Zone.zone2).getMute());
+        assertNull(event.getZone(Zone.zone3));
+        assertNull(event.getNetUSB());
+        assertNull(event.getSystem());
+    }
+
+    @Test
+    public void decodesTheUtf8ContentOfAPacket() {
+        byte[] message = "{\"device_id\":\"Caf\u00e9 \uD83C\uDFB5\",\"main\":{\"input\":\"spotify\"}}"
+                .getBytes(StandardCharsets.UTF_8);
+        // received in a direct buffer, after a previous packet
+        ByteBuffer content = ByteBuffer.allocateDirect(message.length + 8);
+        content.position(8);
+        content.put(message).position(8);
+
+        MusicCastEvent event = decoder.decode(content);
+
+        assertEquals("Caf\u00e9 \uD83C\uDFB5", event.getDeviceId());
+        assertEquals("spotify", event.getZone(Zone.main).getInput());
+        assertFalse(content.hasRemaining());
+    }
+
+    @Test
+    public void skipsUnknownSectionsAndFields() {
+        MusicCastEvent event = decoder.decode("{\"zone9\":{\"power\":\"on\"},\"future\":[1,{\"a\":null}],"
+                + "\"netusb\":{\"play_info_updated\":true,\"trial_status\":{\"input\":\"pandora\"}},"
+                + "\"main\":{\"tone_control\":{\"bass\":1},\"input\":\"spotify\"}}");
+
+        assertEquals(Boolean.TRUE, event.getNetUSB().getPlayInfoUpdated());
+        assertEquals("spotify", event.getZone(Zone.main).getInput());
+        assertNull(event.getDeviceId());
+    }
+
+    @Test
+    public void reusedEventForgetsThePreviousSections() {
+        MusicCastEvent first = decoder.decode("{\"device_id\":\"first\",\"main\":{\"power\":\"on\",\"volume\":30},"
+                + "\"netusb\":{\"play_time\":12},\"system\":{\"name_text_updated\":true}}");
+
+        MusicCastEvent second = decoder.decode("{\"zone2\":{\"power\":\"standby\"}}");
+
+        assertSame(first, second);
+        assertNull(second.getDeviceId());
+        assertNull(second.getZone(Zone.main));
+        assertNull(second.getNetUSB());
+        assertNull(second.getSystem());
+        assertEquals("standby", second.getZone(Zone.zone2).getPower());
+    }
+
+    @Test
+    public void reusedSectionForgetsThePreviousFields() {
+        decoder.decode("{\"main\":{\"power\":\"on\",\"volume\":30,\"mute\":false}}");
+
+        MusicCastEvent event = decoder.decode("{\"main\":{\"input\":\"hdmi1\"}}");
+
+        assertEquals("hdmi1", event.getZone(Zone.main).getInput());
+        assertNull(event.getZone(Zone.main).getPower());
+        assertNull(event.getZone(Zone.main).getVolume());
+        assertNull(event.getZone(Zone.main).getMute());
+    }
+
+    @Test
+    public void invalidEventIsRejectedAndClearedByTheNextOne() {
+        assertThrows(JsonParseException.class, () -> decoder.decode("{\"main\":{\"power\":\"on\",\"volume\":\"x\"}}"));
+        assertThrows(JsonParseException.class, () -> decoder.decode("{\"netusb\":{\"play_time\":1"));
+        assertThrows(JsonParseException.class, () -> decoder.decode("[]"));
+        assertThrows(JsonParseException.class,
+                () -> decoder.decode(ByteBuffer.wrap("{\"main\":".getBytes(StandardCharsets.UTF_8))));
+
+        MusicCastEvent event = decoder.decode("{\"zone2\":{\"volume\":10}}");
+
+        assertNull(event.getZone(Zone.main));
+        assertNull(event.getNetUSB());
+        assertEquals(Integer.valueOf(10), event.getZone(Zone.zone2).getVolume());
+    }
+}
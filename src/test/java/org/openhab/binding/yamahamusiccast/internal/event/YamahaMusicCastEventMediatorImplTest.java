@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) 2010-2020 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.yamahamusiccast.internal.event;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.yamahamusiccast.handler.YamahaMusicCastHandler;
+import org.openhab.core.thing.Thing;
+
+/**
+ * Tests the routing of the packets by the {@link YamahaMusicCastEventMediatorImpl}, and measures the lookup of the
+ * handlers.
+ *
+ * @author Lorenzo Bernardi - Initial contribution
+ */
+@NonNullByDefault
+public class YamahaMusicCastEventMediatorImplTest {
+
+    private static final String MESSAGE = "{\"device_id\":\"00A0DEDCF73E\",\"main\":{\"volume\":20}}";
+    private static final int LOOKUPS = 200000;
+    private static final int ROUNDS = 5;
+    private static final long RESOLVE_TIMEOUT_MILLIS = 5000;
+    private static final long SETTLE_MILLIS = 100;
+
+    private final YamahaMusicCastEventMediatorImpl mediator = new YamahaMusicCastEventMediatorImpl();
+
+    @Test
+    public void packetIsDeliveredToTheHandlerOfItsSender() throws UnknownHostException {
+        YamahaMusicCastHandler first = register(mediator, mock(Thing.class), "192.0.2.1");
+        YamahaMusicCastHandler second = register(mediator, mock(Thing.class), "192.0.2.2");
+
+        mediator.processReceivedPacket(InetAddress.getByName("192.0.2.2"), packet(MESSAGE));
+
+        verify(second).newReceivedResponseMessage(packet(MESSAGE));
+        verify(first, never()).newReceivedResponseMessage(packet(MESSAGE));
+    }
+
+    @Test
+    public void packetFromAnUnknownSenderIsDropped() throws UnknownHostException {
+        YamahaMusicCastHandler handler = register(mediator, mock(Thing.class), "192.0.2.1");
+
+        mediator.processReceivedPacket(InetAddress.getByName("192.0.2.99"), packet(MESSAGE));
+
+        verify(handler, never()).newReceivedResponseMessage(packet(MESSAGE));
+    }
+
+    @Test
+    public void unregisteredHandlerGetsNoMorePackets() throws UnknownHostException {
+        Thing thing = mock(Thing.class);
+        YamahaMusicCastHandler handler = register(mediator, thing, "192.0.2.1");
+        mediator.processReceivedPacket(InetAddress.getByName("192.0.2.1"), packet(MESSAGE));
+
+        mediator.unregisterYamahaMusicCastHandlerByThing(thing);
+        mediator.processReceivedPacket(InetAddress.getByName("192.0.2.1"), packet(MESSAGE));
+
+        verify(handler, times(1)).newReceivedResponseMessage(packet(MESSAGE));
+    }
+
+    @Test
+    public void unknownSenderCausesASingleResolution() throws UnknownHostException, InterruptedException {
+        // no minimum delay between the resolutions, only the unknown senders are remembered
+        YamahaMusicCastEventMediatorImpl mediator = new YamahaMusicCastEventMediatorImpl(0);
+        AtomicInteger hostReads = new AtomicInteger();
+        YamahaMusicCastHandler handler = mock(YamahaMusicCastHandler.class);
+        when(handler.getHost()).thenAnswer(invocation -> {
+            hostReads.incrementAndGet();
+            return "192.0.2.1";
+        });
+        mediator.registerThingAndYamahaMusicCastHandler(mock(Thing.class), handler);
+        awaitResolved(mediator, handler, "192.0.2.1");
+        Thread.sleep(SETTLE_MILLIS);
+        int registered = hostReads.get();
+
+        mediator.processReceivedPacket(InetAddress.getByName("192.0.2.99"), packet(MESSAGE));
+        awaitMore(hostReads, registered);
+        Thread.sleep(SETTLE_MILLIS);
+        int resolved = hostReads.get();
+        for (int i = 0; i < 100; i++) {
+            mediator.processReceivedPacket(InetAddress.getByName("192.0.2.99"), packet(MESSAGE));
+        }
+        Thread.sleep(SETTLE_MILLIS);
+
+        assertEquals(resolved, hostReads.get());
+        // another sender is looked for once too
+        mediator.processReceivedPacket(InetAddress.getByName("192.0.2.98"), packet(MESSAGE));
+        awaitMore(hostReads, resolved);
+        verify(handler, never()).newReceivedResponseMessage(packet(MESSAGE));
+    }
+
+    @Test
+    public void lookupCostStaysFlatFromOneToAThousandDevices() throws UnknownHostException {
+        long one = measureLookupNanos(1);
+        long thousand = measureLookupNanos(1000);
+
+        // a scan of the handlers would be hundreds of times slower, the margin only absorbs the timing noise
+        assertTrue(thousand < 10 * one + 100, "lookup took " + one + " ns for 1 device and " + thousand
+                + " ns for 1000 devices");
+    }
+
+    /**
+     * @return the best time of a lookup over several rounds, in nanoseconds
+     */
+    private long measureLookupNanos(int devices) throws UnknownHostException {
+        YamahaMusicCastEventMediatorImpl mediator = new YamahaMusicCastEventMediatorImpl();
+        List<InetAddress> addresses = new ArrayList<>();
+        for (int i = 0; i < devices; i++) {
+            String host = "10.0." + (i / 250) + "." + (1 + i % 250);
+            register(mediator, mock(Thing.class), host);
+            addresses.add(InetAddress.getByName(host));
+        }
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            int found = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                if (mediator.getHandlerRegistredByAddress(addresses.get(i % devices)) != null) {
+                    found++;
+                }
+            }
+            best = Math.min(best, (System.nanoTime() - start) / LOOKUPS);
+            assertEquals(LOOKUPS, found);
+        }
+        return best;
+    }
+
+    /**
+     * Registers a handler, and waits until its host is resolved in the background.
+     */
+    private static YamahaMusicCastHandler register(YamahaMusicCastEventMediatorImpl mediator, Thing thing,
+            String host) throws UnknownHostException {
+        YamahaMusicCastHandler handler = mock(YamahaMusicCastHandler.class);
+        when(handler.getHost()).thenReturn(host);
+        mediator.registerThingAndYamahaMusicCastHandler(thing, handler);
+        awaitResolved(mediator, handler, host);
+        return handler;
+    }
+
+    private static void awaitResolved(YamahaMusicCastEventMediatorImpl mediator, YamahaMusicCastHandler handler,
+            String host) throws UnknownHostException {
+        InetAddress address = InetAddress.getByName(host);
+        long deadline = System.currentTimeMillis() + RESOLVE_TIMEOUT_MILLIS;
+        while (mediator.getHandlerRegistredByAddress(address) != handler) {
+            assertTrue(System.currentTimeMillis() < deadline, "host " + host + " was not resolved");
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void awaitMore(AtomicInteger counter, int count) {
+        long deadline = System.currentTimeMillis() + RESOLVE_TIMEOUT_MILLIS;
+        while (counter.get() <= count) {
+            assertTrue(System.currentTimeMillis() < deadline, "the hosts were not resolved again");
+            Thread.onSpinWait();
+        }
+    }
+
+    private static ByteBuffer packet(String message) {
+        return ByteBuffer.wrap(message.getBytes(StandardCharsets.UTF_8));
+    }
+}